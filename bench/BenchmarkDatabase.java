@@ -0,0 +1,188 @@
+// BenchmarkDatabase.java - Creates and seeds a throwaway copy of the store schema for benchmarks
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds a benchmark schema on a local MySQL server from the same {@code mydb.sql} the app uses,
+ * then fills it with a synthetic catalog and order history of the requested size.
+ * The schema gets its own name, so the app's {@code mydb} database is never touched.
+ */
+class BenchmarkDatabase {
+    private static final int BATCH_SIZE = 2_000;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int ORDERS_PER_CUSTOMER = 20;
+    // Large enough that createOrder benchmarks never run a product out of stock
+    private static final int SEED_STOCK = 1_000_000_000;
+
+    private final String serverUrl;
+    private final String username;
+    private final String password;
+    private final String schema;
+    private final Path ddlFile;
+
+    /**
+     * @param serverUrl JDBC URL of the server without a database, e.g. {@code jdbc:mysql://localhost:3306/}.
+     * @param schema Name of the database to (re)create; dropped first if it exists.
+     * @param ddlFile The app's schema script; its {@code mydb} database name is replaced by {@code schema}.
+     */
+    public BenchmarkDatabase(String serverUrl, String username, String password, String schema, Path ddlFile) {
+        this.serverUrl = serverUrl.endsWith("/") ? serverUrl : serverUrl + "/";
+        this.username = username;
+        this.password = password;
+        this.schema = schema;
+        this.ddlFile = ddlFile;
+    }
+
+    /**
+     * @return The JDBC URL the app's DatabaseManager should use for the benchmark schema.
+     */
+    public String getUrl() {
+        return serverUrl + schema + "?rewriteBatchedStatements=true";
+    }
+
+    /**
+     * Recreates the schema from the DDL script and seeds it.
+     * @param catalogSize Number of products.
+     * @param orderCount Number of orders in the history, each with {@value #ITEMS_PER_ORDER} items.
+     */
+    public void create(int catalogSize, int orderCount) throws SQLException, IOException {
+        long start = System.nanoTime();
+        try (Connection conn = DriverManager.getConnection(serverUrl + "?rewriteBatchedStatements=true", username, password);
+             Statement stmt = conn.createStatement()) {
+            for (String sql : loadDdl()) {
+                stmt.execute(sql);
+            }
+        }
+        try (Connection conn = DriverManager.getConnection(getUrl(), username, password)) {
+            conn.setAutoCommit(false);
+            Random random = new Random(42); // fixed seed, so every run sees the same data
+            seedProducts(conn, catalogSize, random);
+            int customerCount = Math.max(10, orderCount / ORDERS_PER_CUSTOMER);
+            seedCustomers(conn, customerCount);
+            seedOrders(conn, orderCount, customerCount, catalogSize, random);
+        }
+        System.out.printf("# Seeded %s: %d products, %d orders in %.1f s%n",
+                schema, catalogSize, orderCount, (System.nanoTime() - start) / 1e9);
+    }
+
+    public void drop() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(serverUrl, username, password);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP DATABASE IF EXISTS `" + schema + "`");
+        }
+    }
+
+    /**
+     * Splits the DDL script into statements, dropping comment lines and the script's own sample data.
+     */
+    private List<String> loadDdl() throws IOException {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : Files.readAllLines(ddlFile, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                sql = sql.substring(0, sql.length() - 1).replace("`mydb`", "`" + schema + "`");
+                if (!sql.startsWith("INSERT")) {
+                    statements.add(sql);
+                }
+                current.setLength(0);
+            }
+        }
+        return statements;
+    }
+
+    private static void seedProducts(Connection conn, int count, Random random) throws SQLException {
+        String sql = "INSERT INTO products (name, description, price, stock_quantity, image_url) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                pstmt.setString(1, "Product " + i);
+                pstmt.setString(2, "Benchmark product number " + i + ", generated for load testing.");
+                pstmt.setBigDecimal(3, BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+                pstmt.setInt(4, SEED_STOCK);
+                pstmt.setString(5, null);
+                pstmt.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+    }
+
+    private static void seedCustomers(Connection conn, int count) throws SQLException {
+        String sql = "INSERT INTO customers (name, email, phone_number, address) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                pstmt.setString(1, "Customer " + i);
+                pstmt.setString(2, "customer" + i + "@example.com");
+                pstmt.setString(3, "555-" + String.format("%07d", i));
+                pstmt.setString(4, i + " Benchmark Street, Anytown, USA");
+                pstmt.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+    }
+
+    /**
+     * Inserts orders with explicit ids (the table is empty) so their items can be batched without reading generated keys.
+     */
+    private static void seedOrders(Connection conn, int count, int customerCount, int catalogSize, Random random) throws SQLException {
+        String orderSql = "INSERT INTO orders (order_id, customer_id, order_date, total_amount, status, payment_method) VALUES (?, ?, ?, ?, ?, ?)";
+        String itemSql = "INSERT INTO order_items (order_id, product_id, quantity, price_at_purchase) VALUES (?, ?, ?, ?)";
+        String[] statuses = {"Pending", "Completed", "Cancelled"};
+        long now = System.currentTimeMillis();
+        try (PreparedStatement orderStmt = conn.prepareStatement(orderSql);
+             PreparedStatement itemStmt = conn.prepareStatement(itemSql)) {
+            for (int orderId = 1; orderId <= count; orderId++) {
+                BigDecimal total = BigDecimal.ZERO;
+                for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                    BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+                    int quantity = 1 + random.nextInt(3);
+                    itemStmt.setInt(1, orderId);
+                    itemStmt.setInt(2, 1 + random.nextInt(catalogSize));
+                    itemStmt.setInt(3, quantity);
+                    itemStmt.setBigDecimal(4, price);
+                    itemStmt.addBatch();
+                    total = total.add(price.multiply(BigDecimal.valueOf(quantity)));
+                }
+                orderStmt.setInt(1, orderId);
+                orderStmt.setInt(2, 1 + random.nextInt(customerCount));
+                orderStmt.setTimestamp(3, new Timestamp(now - (long) (count - orderId) * 60_000L));
+                orderStmt.setBigDecimal(4, total);
+                orderStmt.setString(5, statuses[random.nextInt(statuses.length)]);
+                orderStmt.setString(6, "Cash On Delivery");
+                orderStmt.addBatch();
+                if (orderId % BATCH_SIZE == 0) {
+                    orderStmt.executeBatch();
+                    itemStmt.executeBatch();
+                    conn.commit();
+                }
+            }
+            orderStmt.executeBatch();
+            itemStmt.executeBatch();
+        }
+        conn.commit();
+    }
+}
@@ -0,0 +1,283 @@
+// BenchmarkHarness.java - Throughput measurement loop and JSON result output for the store benchmarks
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * Minimal JMH-style harness: every benchmark runs a number of timed warm-up iterations that are thrown away,
+ * then timed measurement iterations whose throughput is reported as mean ops/s with a 99.9% confidence
+ * interval. Results are written in JMH's JSON result format, so existing JMH tooling can compare runs.
+ */
+class BenchmarkHarness {
+
+    /**
+     * One invocation of the code under test. The returned value is consumed so the JIT cannot drop the work.
+     */
+    interface Operation {
+        Object run() throws Exception;
+    }
+
+    /**
+     * Measured throughput of one benchmark with one set of parameters.
+     */
+    static class Result {
+        private final String benchmark;
+        private final Map<String, String> params;
+        private final int threads;
+        private final double[] opsPerSecond;
+
+        Result(String benchmark, Map<String, String> params, int threads, double[] opsPerSecond) {
+            this.benchmark = benchmark;
+            this.params = params;
+            this.threads = threads;
+            this.opsPerSecond = opsPerSecond;
+        }
+
+        public String getBenchmark() { return benchmark; }
+        public Map<String, String> getParams() { return params; }
+        public int getThreads() { return threads; }
+
+        public double getScore() {
+            double sum = 0;
+            for (double value : opsPerSecond) {
+                sum += value;
+            }
+            return sum / opsPerSecond.length;
+        }
+
+        /**
+         * @return Half-width of the 99.9% confidence interval of the score, or NaN with fewer than two iterations.
+         */
+        public double getScoreError() {
+            int n = opsPerSecond.length;
+            if (n < 2) {
+                return Double.NaN;
+            }
+            double mean = getScore();
+            double squares = 0;
+            for (double value : opsPerSecond) {
+                squares += (value - mean) * (value - mean);
+            }
+            return studentT999(n - 1) * Math.sqrt(squares / (n - 1)) / Math.sqrt(n);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-40s %-28s %14.3f +- %10.3f ops/s",
+                    benchmark, params.isEmpty() ? "" : params.toString(), getScore(), getScoreError());
+        }
+    }
+
+    // Written by every operation so results stay observable to the JIT
+    private static volatile int sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+
+    /**
+     * @param iterationMillis Length of every warm-up and measurement iteration.
+     */
+    public BenchmarkHarness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    public int getWarmupIterations() { return warmupIterations; }
+    public int getMeasurementIterations() { return measurementIterations; }
+    public long getIterationMillis() { return iterationMillis; }
+
+    /**
+     * Runs the warm-up and measurement iterations of one benchmark and prints each iteration as it completes.
+     */
+    public Result measure(String benchmark, Map<String, String> params, Operation operation) throws Exception {
+        return measure(benchmark, params, 1, thread -> operation);
+    }
+
+    /**
+     * Runs the operation on {@code threads} threads at once and reports their combined throughput, like JMH's
+     * {@code -t}. Each thread gets its own operation from {@code operations}, so per-thread state (e.g. a Random)
+     * needs no synchronization.
+     */
+    public Result measure(String benchmark, Map<String, String> params, int threads, IntFunction<Operation> operations) throws Exception {
+        System.out.println("# Benchmark: " + benchmark + (params.isEmpty() ? "" : " " + params) + (threads > 1 ? ", " + threads + " threads" : ""));
+        Operation[] perThread = new Operation[threads];
+        for (int t = 0; t < threads; t++) {
+            perThread[t] = operations.apply(t);
+        }
+        for (int i = 1; i <= warmupIterations; i++) {
+            System.out.printf(Locale.ROOT, "# Warmup Iteration %2d: %.3f ops/s%n", i, runIteration(perThread));
+        }
+        double[] opsPerSecond = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            opsPerSecond[i] = runIteration(perThread);
+            System.out.printf(Locale.ROOT, "Iteration %2d: %.3f ops/s%n", i + 1, opsPerSecond[i]);
+        }
+        Result result = new Result(benchmark, new LinkedHashMap<>(params), threads, opsPerSecond);
+        System.out.println(result);
+        System.out.println();
+        return result;
+    }
+
+    private double runIteration(Operation[] operations) throws Exception {
+        if (operations.length == 1) {
+            return runIteration(operations[0]);
+        }
+        long[] counts = new long[operations.length];
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[operations.length];
+        for (int t = 0; t < operations.length; t++) {
+            int index = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    long deadline = System.nanoTime() + iterationMillis * 1_000_000L;
+                    long operationCount = 0;
+                    int local = 0;
+                    do {
+                        Object value = operations[index].run();
+                        local += value == null ? 0 : System.identityHashCode(value);
+                        operationCount++;
+                    } while (System.nanoTime() < deadline && failure.get() == null);
+                    counts[index] = operationCount;
+                    sink += local;
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "benchmark-" + t);
+            threads[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total * 1e9 / elapsed;
+    }
+
+    private double runIteration(Operation operation) throws Exception {
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000L;
+        long start = System.nanoTime();
+        long operations = 0;
+        long now;
+        do {
+            Object value = operation.run();
+            sink += value == null ? 0 : System.identityHashCode(value);
+            operations++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return operations * 1e9 / (now - start);
+    }
+
+    /**
+     * Writes the results in the format of JMH's {@code -rf json}.
+     */
+    public void writeJson(List<Result> results, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("[\n");
+            for (int r = 0; r < results.size(); r++) {
+                Result result = results.get(r);
+                out.write("    {\n");
+                out.write("        \"benchmark\" : " + quote(result.getBenchmark()) + ",\n");
+                out.write("        \"mode\" : \"thrpt\",\n");
+                out.write("        \"threads\" : " + result.getThreads() + ",\n");
+                out.write("        \"forks\" : 0,\n");
+                out.write("        \"jdkVersion\" : " + quote(System.getProperty("java.version")) + ",\n");
+                out.write("        \"warmupIterations\" : " + warmupIterations + ",\n");
+                out.write("        \"warmupTime\" : " + quote(iterationMillis + " ms") + ",\n");
+                out.write("        \"measurementIterations\" : " + measurementIterations + ",\n");
+                out.write("        \"measurementTime\" : " + quote(iterationMillis + " ms") + ",\n");
+                out.write("        \"params\" : {");
+                int p = 0;
+                for (Map.Entry<String, String> param : result.getParams().entrySet()) {
+                    out.write((p++ == 0 ? "\n" : ",\n") + "            " + quote(param.getKey()) + " : " + quote(param.getValue()));
+                }
+                out.write(p == 0 ? "},\n" : "\n        },\n");
+                out.write("        \"primaryMetric\" : {\n");
+                out.write("            \"score\" : " + number(result.getScore()) + ",\n");
+                out.write("            \"scoreError\" : " + number(result.getScoreError()) + ",\n");
+                out.write("            \"scoreUnit\" : \"ops/s\",\n");
+                out.write("            \"rawData\" : [\n                [\n");
+                for (int i = 0; i < result.opsPerSecond.length; i++) {
+                    out.write("                    " + number(result.opsPerSecond[i]) + (i + 1 < result.opsPerSecond.length ? ",\n" : "\n"));
+                }
+                out.write("                ]\n            ]\n        }\n");
+                out.write(r + 1 < results.size() ? "    },\n" : "    }\n");
+            }
+            out.write("]\n");
+        }
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "\"NaN\"" : String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Two-sided 99.9% quantile of Student's t distribution, taken at the nearest tabulated degrees of freedom
+     * at or below the given ones, so the interval errs on the wide side.
+     */
+    private static double studentT999(int degreesOfFreedom) {
+        int[] df = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 15, 20, 30, 60, 120};
+        double[] t = {636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587, 4.073, 3.850, 3.646, 3.460, 3.373};
+        for (int i = df.length - 1; i >= 0; i--) {
+            if (degreesOfFreedom >= df[i]) {
+                return t[i];
+            }
+        }
+        return t[0];
+    }
+
+    /**
+     * @return All combinations of the given parameter values, in declaration order.
+     */
+    static List<Map<String, String>> combinations(Map<String, List<String>> params) {
+        List<Map<String, String>> combinations = new ArrayList<>();
+        combinations.add(new LinkedHashMap<>());
+        for (Map.Entry<String, List<String>> param : params.entrySet()) {
+            List<Map<String, String>> next = new ArrayList<>();
+            for (Map<String, String> combination : combinations) {
+                for (String value : param.getValue()) {
+                    Map<String, String> extended = new LinkedHashMap<>(combination);
+                    extended.put(param.getKey(), value);
+                    next.add(extended);
+                }
+            }
+            combinations = next;
+        }
+        return combinations;
+    }
+}
@@ -0,0 +1,386 @@
+// StoreBenchmarks.java - Throughput benchmarks for the store app's hot paths
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks for the cart, bill rendering and the main DatabaseManager reads and writes.
+ *
+ * Build and run from the project root (the DB benchmarks need a local MySQL server; without one they are skipped):
+ * <pre>
+ *   javac -encoding UTF-8 -cp itextpdf-5.5.13.3.jar:mysql-connector-j-9.3.0/mysql-connector-j-9.3.0.jar -d out/bench src/*.java bench/*.java
+ *   java -cp out/bench:itextpdf-5.5.13.3.jar:mysql-connector-j-9.3.0/mysql-connector-j-9.3.0.jar \
+ *        -Dbench.db.user=root -Dbench.db.password=root StoreBenchmarks [options] [benchmark regex]
+ * </pre>
+ * Options, named after their JMH equivalents:
+ * <pre>
+ *   -wi &lt;n&gt;             warm-up iterations (default 3)
+ *   -i &lt;n&gt;              measurement iterations (default 5)
+ *   -r &lt;time&gt;           length of each iteration, e.g. 2s or 500ms (default 2s)
+ *   -p &lt;name&gt;=&lt;v1,v2&gt;   override a parameter: items, cartSize, catalog, orders, threads
+ *   -rff &lt;file&gt;         JSON result file (default bench-results.json)
+ * </pre>
+ * Database system properties: {@code bench.db.url} (server URL, default {@code jdbc:mysql://localhost:3306/}),
+ * {@code bench.db.user}, {@code bench.db.password}, {@code bench.db.schema} (default {@code mydb_bench}),
+ * {@code bench.db.ddl} (default {@code mydb.sql}) and {@code bench.db.keep} to leave the seeded schema behind.
+ */
+public class StoreBenchmarks {
+    private final BenchmarkHarness harness;
+    private final Map<String, List<String>> params;
+    private final Pattern filter;
+    private final List<BenchmarkHarness.Result> results = new ArrayList<>();
+
+    StoreBenchmarks(BenchmarkHarness harness, Map<String, List<String>> params, Pattern filter) {
+        this.harness = harness;
+        this.params = params;
+        this.filter = filter;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int warmupIterations = 3;
+        int measurementIterations = 5;
+        long iterationMillis = 2_000;
+        Path resultFile = Paths.get("bench-results.json");
+        Pattern filter = Pattern.compile(".*");
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        params.put("items", Arrays.asList("1", "50", "500"));
+        params.put("cartSize", Arrays.asList("20"));
+        params.put("catalog", Arrays.asList("1000", "10000"));
+        params.put("orders", Arrays.asList("1000", "10000"));
+        params.put("threads", Arrays.asList("1", "4", "8"));
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi": warmupIterations = Integer.parseInt(args[++i]); break;
+                case "-i": measurementIterations = Integer.parseInt(args[++i]); break;
+                case "-r": iterationMillis = parseMillis(args[++i]); break;
+                case "-rff": resultFile = Paths.get(args[++i]); break;
+                case "-p": {
+                    String[] param = args[++i].split("=", 2);
+                    if (param.length != 2 || !params.containsKey(param[0])) {
+                        throw new IllegalArgumentException("Unknown parameter: " + args[i] + ", expected one of " + params.keySet());
+                    }
+                    params.put(param[0], Arrays.asList(param[1].split(",")));
+                    break;
+                }
+                default: filter = Pattern.compile(args[i]);
+            }
+        }
+
+        StoreBenchmarks benchmarks = new StoreBenchmarks(
+                new BenchmarkHarness(warmupIterations, measurementIterations, iterationMillis), params, filter);
+        benchmarks.runCartBenchmarks();
+        benchmarks.runBillBenchmarks();
+        benchmarks.runDatabaseBenchmarks();
+        benchmarks.finish(resultFile);
+    }
+
+    private boolean selected(String benchmark) {
+        return filter.matcher(benchmark).find();
+    }
+
+    private void run(String benchmark, Map<String, String> values, BenchmarkHarness.Operation operation) throws Exception {
+        if (selected(benchmark)) {
+            results.add(harness.measure(benchmark, values, operation));
+        }
+    }
+
+    private static Map<String, String> only(Map<String, String> values, String... names) {
+        Map<String, String> subset = new LinkedHashMap<>();
+        for (String name : names) {
+            subset.put(name, values.get(name));
+        }
+        return subset;
+    }
+
+    private Map<String, List<String>> paramsFor(String... names) {
+        Map<String, List<String>> subset = new LinkedHashMap<>();
+        for (String name : names) {
+            subset.put(name, params.get(name));
+        }
+        return subset;
+    }
+
+    // --- Cart ---
+
+    private void runCartBenchmarks() throws Exception {
+        for (Map<String, String> values : BenchmarkHarness.combinations(paramsFor("cartSize"))) {
+            int cartSize = Integer.parseInt(values.get("cartSize"));
+            List<Product> products = syntheticProducts(cartSize);
+
+            Cart filling = new Cart();
+            run("Cart.addItem", values, () -> {
+                filling.clear();
+                for (Product product : products) {
+                    filling.addItem(product, 1);
+                }
+                filling.addItem(products.get(0), 1); // one repeat, the quantity-update path
+                return filling;
+            });
+
+            Cart full = new Cart();
+            for (Product product : products) {
+                full.addItem(product, 2);
+            }
+            run("Cart.getTotal", values, full::getTotal);
+        }
+    }
+
+    // --- Bills ---
+
+    /**
+     * Measures rendering only: generateBill is writeBill plus a file write and a console line per bill,
+     * which would make the result a disk benchmark.
+     */
+    private void runBillBenchmarks() throws Exception {
+        Customer customer = new Customer(1, "John Doe", "john.doe@example.com", "123-456-7890", "123 Main St, Anytown, USA");
+        OutputStream discard = OutputStream.nullOutputStream();
+        for (Map<String, String> values : BenchmarkHarness.combinations(paramsFor("items"))) {
+            int items = Integer.parseInt(values.get("items"));
+            Order order = new Order(1, customer.getCustomerId(), new Timestamp(System.currentTimeMillis()),
+                    BigDecimal.ZERO, "Completed", "Cash On Delivery");
+            BigDecimal total = BigDecimal.ZERO;
+            for (Product product : syntheticProducts(items)) {
+                order.addOrderItem(new OrderItem(product.getProductId(), 1, product.getProductId(), product.getName(), 2, product.getPrice()));
+                total = total.add(product.getPrice().multiply(BigDecimal.valueOf(2)));
+            }
+            order.setTotalAmount(total);
+            run("PdfGenerator.writeBill", values, () -> {
+                PdfGenerator.writeBill(order, customer, discard);
+                return order;
+            });
+        }
+    }
+
+    private static List<Product> syntheticProducts(int count) {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            products.add(new Product(i, "Product " + i, "Benchmark product " + i,
+                    BigDecimal.valueOf(100 + random.nextInt(100_000), 2), 1_000, null));
+        }
+        return products;
+    }
+
+    // --- Database ---
+
+    private static final String[] DATABASE_BENCHMARKS = {
+            "DatabaseManager.getAllProducts", "DatabaseManager.getAllProducts.cached", "DatabaseManager.getAllOrders",
+            "DatabaseManager.searchProducts", "DatabaseManager.searchProducts.prefix", "DatabaseManager.searchCustomers",
+            "DatabaseManager.findOrders", "DatabaseManager.getDailySales", "DatabaseManager.getTopProducts",
+            "DatabaseManager.createOrder", "DatabaseManager.createOrder.contended", "DatabaseManager.createOrder.concurrent",
+            "OrderIngestionQueue.submit", "ProductImporter.importCsv"};
+
+    private void runDatabaseBenchmarks() throws Exception {
+        if (Arrays.stream(DATABASE_BENCHMARKS).noneMatch(this::selected)) {
+            return;
+        }
+        BenchmarkDatabase database = new BenchmarkDatabase(
+                System.getProperty("bench.db.url", "jdbc:mysql://localhost:3306/"),
+                System.getProperty("bench.db.user", "root"),
+                System.getProperty("bench.db.password", "root"),
+                System.getProperty("bench.db.schema", "mydb_bench"),
+                Paths.get(System.getProperty("bench.db.ddl", "mydb.sql")));
+
+        for (Map<String, String> values : BenchmarkHarness.combinations(paramsFor("catalog", "orders"))) {
+            try {
+                database.create(Integer.parseInt(values.get("catalog")), Integer.parseInt(values.get("orders")));
+            } catch (SQLException e) {
+                System.err.println("StoreBenchmarks: Skipping database benchmarks, could not seed the benchmark schema: " + e.getMessage());
+                return;
+            }
+            DatabaseManager dbManager = new DatabaseManager(database.getUrl(),
+                    System.getProperty("bench.db.user", "root"), System.getProperty("bench.db.password", "root"));
+            try {
+                dbManager.connect();
+                ProductCache productCache = dbManager.getProductCache();
+                run("DatabaseManager.getAllProducts", only(values, "catalog"), () -> {
+                    productCache.invalidateAll(); // measure the database read, not the cache
+                    return dbManager.getAllProducts();
+                });
+                run("DatabaseManager.getAllProducts.cached", only(values, "catalog"), dbManager::getAllProducts);
+                run("DatabaseManager.getAllOrders", values, dbManager::getAllOrders);
+                // Seeded names are "Product N"; the short word sends the second query down the name-prefix path
+                run("DatabaseManager.searchProducts", only(values, "catalog"), () -> dbManager.searchProducts("benchmark numb", 500));
+                run("DatabaseManager.searchProducts.prefix", only(values, "catalog"), () -> dbManager.searchProducts("Product 12", 500));
+                run("DatabaseManager.searchCustomers", only(values, "orders"), () -> dbManager.searchCustomers("customer12", 500));
+                Timestamp lastDay = new Timestamp(System.currentTimeMillis() - 24 * 60 * 60_000L);
+                run("DatabaseManager.findOrders", values, () -> dbManager.findOrders(null, "Pending", lastDay, null));
+                if (selected("DatabaseManager.getDailySales") || selected("DatabaseManager.getTopProducts")) {
+                    dbManager.rebuildSalesSummaries(); // the seeded orders bypass createOrder, so summarize them once
+                }
+                LocalDate today = LocalDate.now();
+                run("DatabaseManager.getDailySales", values, () -> dbManager.getDailySales(today.minusDays(364), today));
+                run("DatabaseManager.getTopProducts", values, () -> dbManager.getTopProducts(today.minusDays(364), today, 20));
+                // Last, because every order it places grows the history the reads above depend on
+                runCreateOrder(dbManager, values);
+                runProductImport(dbManager, values);
+            } finally {
+                dbManager.close();
+                if (!Boolean.getBoolean("bench.db.keep")) {
+                    database.drop();
+                }
+            }
+        }
+    }
+
+    /**
+     * Places three-item orders for random products, the shape of a typical checkout.
+     */
+    private void runCreateOrder(DatabaseManager dbManager, Map<String, String> values) throws Exception {
+        runContendedCreateOrder(dbManager, values);
+        runGroupCommit(dbManager, values);
+        if (!selected("DatabaseManager.createOrder")) {
+            return;
+        }
+        List<Product> catalog = dbManager.getAllProducts();
+        Random random = new Random(42);
+        run("DatabaseManager.createOrder", values, () -> {
+            Cart cart = new Cart();
+            for (int i = 0; i < 3; i++) {
+                cart.addItem(catalog.get(random.nextInt(catalog.size())), 1);
+            }
+            return dbManager.createOrder(1, cart.getItems(), cart.getTotal(), "Cash On Delivery");
+        });
+    }
+
+    /**
+     * Imports a CSV that rewrites the whole seeded catalog by product id, so the catalog size stays the same
+     * from one operation to the next. Products per second is catalog times the reported operations per second.
+     */
+    private void runProductImport(DatabaseManager dbManager, Map<String, String> values) throws Exception {
+        if (!selected("ProductImporter.importCsv")) {
+            return;
+        }
+        Path csvFile = Files.createTempFile("bench-products", ".csv");
+        try {
+            StringBuilder csv = new StringBuilder("product_id,name,description,price,stock_quantity,image_url\n");
+            for (Product product : syntheticProducts(Integer.parseInt(values.get("catalog")))) {
+                csv.append(product.getProductId()).append(',').append(product.getName()).append(',')
+                        .append(product.getDescription()).append(',').append(product.getPrice()).append(',')
+                        .append(product.getStockQuantity()).append(",\n");
+            }
+            Files.write(csvFile, csv.toString().getBytes(StandardCharsets.UTF_8));
+            int workers = Runtime.getRuntime().availableProcessors();
+            ProductImporter importer = new ProductImporter(dbManager, workers, 1_000, workers * 2);
+            run("ProductImporter.importCsv", only(values, "catalog"), () -> importer.importCsv(csvFile, null));
+        } finally {
+            Files.deleteIfExists(csvFile);
+        }
+    }
+
+    // Products every contended checkout picks from, like the laptop SKU everyone buys
+    private static final int HOT_PRODUCTS = 5;
+
+    /**
+     * Concurrent tills checking out two of a handful of hot products each, so every checkout contends for the
+     * same product rows. Throughput here follows how long a checkout holds those row locks.
+     */
+    private void runContendedCreateOrder(DatabaseManager dbManager, Map<String, String> values) throws Exception {
+        if (!selected("DatabaseManager.createOrder.contended")) {
+            return;
+        }
+        List<Product> catalog = dbManager.getAllProducts();
+        List<Product> hot = catalog.subList(0, Math.min(HOT_PRODUCTS, catalog.size()));
+        for (Map<String, String> threadValues : BenchmarkHarness.combinations(paramsFor("threads"))) {
+            Map<String, String> combined = new LinkedHashMap<>(values);
+            combined.putAll(threadValues);
+            int threads = Integer.parseInt(threadValues.get("threads"));
+            results.add(harness.measure("DatabaseManager.createOrder.contended", combined, threads, thread -> {
+                Random random = new Random(42 + thread);
+                return () -> {
+                    Cart cart = new Cart();
+                    cart.addItem(hot.get(random.nextInt(hot.size())), 1);
+                    cart.addItem(hot.get(random.nextInt(hot.size())), 1);
+                    return dbManager.createOrder(1, cart.getItems(), cart.getTotal(), "Cash On Delivery");
+                };
+            }));
+        }
+    }
+
+    // Group commit settings for OrderIngestionQueue.submit
+    private static final long GROUP_COMMIT_WAIT_MILLIS = 2;
+    private static final int GROUP_COMMIT_BATCH_SIZE = 32;
+
+    /**
+     * Concurrent tills placing three-item orders for random products, each order in its own transaction
+     * (DatabaseManager.createOrder.concurrent) and through the group-commit queue (OrderIngestionQueue.submit).
+     * Compare the two at the same thread count; the gap is what sharing commits saves.
+     */
+    private void runGroupCommit(DatabaseManager dbManager, Map<String, String> values) throws Exception {
+        boolean direct = selected("DatabaseManager.createOrder.concurrent");
+        boolean grouped = selected("OrderIngestionQueue.submit");
+        if (!direct && !grouped) {
+            return;
+        }
+        List<Product> catalog = dbManager.getAllProducts();
+        OrderIngestionQueue queue = new OrderIngestionQueue(dbManager, GROUP_COMMIT_WAIT_MILLIS, GROUP_COMMIT_BATCH_SIZE);
+        try {
+            for (Map<String, String> threadValues : BenchmarkHarness.combinations(paramsFor("threads"))) {
+                Map<String, String> combined = new LinkedHashMap<>(values);
+                combined.putAll(threadValues);
+                int threads = Integer.parseInt(threadValues.get("threads"));
+                if (direct) {
+                    results.add(harness.measure("DatabaseManager.createOrder.concurrent", combined, threads, thread -> {
+                        Random random = new Random(42 + thread);
+                        return () -> {
+                            Cart cart = randomCart(catalog, random);
+                            return dbManager.createOrder(1, cart.getItems(), cart.getTotal(), "Cash On Delivery");
+                        };
+                    }));
+                }
+                if (grouped) {
+                    results.add(harness.measure("OrderIngestionQueue.submit", combined, threads, thread -> {
+                        Random random = new Random(42 + thread);
+                        return () -> {
+                            Cart cart = randomCart(catalog, random);
+                            return queue.submit(1, cart.getItems(), cart.getTotal(), "Cash On Delivery", Collections.emptyMap()).get();
+                        };
+                    }));
+                }
+            }
+        } finally {
+            queue.shutdown(10_000);
+        }
+    }
+
+    private static Cart randomCart(List<Product> catalog, Random random) {
+        Cart cart = new Cart();
+        for (int i = 0; i < 3; i++) {
+            cart.addItem(catalog.get(random.nextInt(catalog.size())), 1);
+        }
+        return cart;
+    }
+
+    private void finish(Path resultFile) throws Exception {
+        harness.writeJson(results, resultFile);
+        System.out.println("# Run complete. " + results.size() + " benchmark(s), results written to " + resultFile.toAbsolutePath());
+        for (BenchmarkHarness.Result result : results) {
+            System.out.println(result);
+        }
+    }
+
+    private static long parseMillis(String time) {
+        if (time.endsWith("ms")) {
+            return Long.parseLong(time.substring(0, time.length() - 2));
+        }
+        if (time.endsWith("s")) {
+            return Long.parseLong(time.substring(0, time.length() - 1)) * 1_000;
+        }
+        return Long.parseLong(time) * 1_000;
+    }
+}
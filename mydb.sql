@@ -24,7 +24,8 @@ CREATE TABLE `customers` (
   `email` VARCHAR(100) NOT NULL UNIQUE,
   `phone_number` VARCHAR(20) NULL,
   `address` TEXT NULL,
-  PRIMARY KEY (`customer_id`)
+  PRIMARY KEY (`customer_id`),
+  INDEX `idx_customers_name` (`name`) -- name prefix search; email prefix search uses the UNIQUE index
 ) ENGINE=InnoDB;
 
 -- -----------------------------------------------------
@@ -51,10 +52,48 @@ CREATE TABLE `products` (
   `description` TEXT NULL,
   `price` DECIMAL(10, 2) NOT NULL,
   `stock_quantity` INT NOT NULL DEFAULT 0,
+  -- Units held by unexpired stock_reservations; checkouts may take stock_quantity - reserved_quantity.
+  `reserved_quantity` INT NOT NULL DEFAULT 0,
   `image_url` VARCHAR(2048) NULL,
   PRIMARY KEY (`product_id`),
+  INDEX `idx_products_name` (`name`), -- name prefix search for words too short for the FULLTEXT index
+  FULLTEXT INDEX `ft_products_name_description` (`name`, `description`), -- word-prefix product search
   CONSTRAINT `chk_product_price` CHECK (`price` >= 0),
-  CONSTRAINT `chk_product_stock` CHECK (`stock_quantity` >= 0)
+  CONSTRAINT `chk_product_stock` CHECK (`stock_quantity` >= 0),
+  CONSTRAINT `chk_product_reserved` CHECK (`reserved_quantity` >= 0)
+) ENGINE=InnoDB;
+
+-- -----------------------------------------------------
+-- Table `stock_reservations`
+-- -----------------------------------------------------
+-- Stock held for a shopping cart. Expired rows are released by the app's reservation sweeper.
+CREATE TABLE `stock_reservations` (
+  `reservation_id` INT NOT NULL AUTO_INCREMENT,
+  `product_id` INT NOT NULL,
+  `quantity` INT NOT NULL,
+  `expires_at` TIMESTAMP(3) NOT NULL,
+  PRIMARY KEY (`reservation_id`),
+  INDEX `idx_stock_reservations_expires_at` (`expires_at`),
+  CONSTRAINT `fk_stock_reservations_products`
+    FOREIGN KEY (`product_id`)
+    REFERENCES `products` (`product_id`)
+    ON DELETE CASCADE,
+  CONSTRAINT `chk_stock_reservation_quantity` CHECK (`quantity` > 0)
+) ENGINE=InnoDB;
+
+-- -----------------------------------------------------
+-- Table `stock_changes`
+-- -----------------------------------------------------
+-- Append-only log of products' new stock_quantity, written in the transactions that change it (checkouts,
+-- product edits and imports; NULL when a product is deleted). Every till polls it to patch the stock it shows.
+-- No foreign key, so deletions can be logged too; the app prunes rows older than a day.
+CREATE TABLE `stock_changes` (
+  `change_id` BIGINT NOT NULL AUTO_INCREMENT,
+  `product_id` INT NOT NULL,
+  `stock_quantity` INT NULL,
+  `changed_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`change_id`),
+  INDEX `idx_stock_changes_changed_at` (`changed_at`)
 ) ENGINE=InnoDB;
 
 -- -----------------------------------------------------
@@ -67,7 +106,14 @@ CREATE TABLE `orders` (
   `total_amount` DECIMAL(10, 2) NOT NULL,
   `status` ENUM('Pending', 'Completed', 'Cancelled') NOT NULL DEFAULT 'Pending',
   `payment_method` VARCHAR(50) NULL,
+  -- Set on insert and on every change; the admin order table only re-reads orders above its high-water mark.
+  `updated_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
   PRIMARY KEY (`order_id`),
+  INDEX `idx_orders_updated_at` (`updated_at`),
+  -- Order filters: a customer's orders and orders with a status, both by date range; also serves the customer FK
+  INDEX `idx_orders_customer_date` (`customer_id`, `order_date`),
+  INDEX `idx_orders_status_date` (`status`, `order_date`),
+  INDEX `idx_orders_date` (`order_date`),
   CONSTRAINT `fk_orders_customers`
     FOREIGN KEY (`customer_id`)
     REFERENCES `customers` (`customer_id`)
@@ -95,6 +141,37 @@ CREATE TABLE `order_items` (
   CONSTRAINT `chk_order_item_quantity` CHECK (`quantity` > 0)
 ) ENGINE=InnoDB;
 
+-- -----------------------------------------------------
+-- Table `daily_sales`
+-- -----------------------------------------------------
+-- Sales totals per day of order_date, kept up to date in the transactions that create orders or change their
+-- status; cancelled orders are not counted. Each day is split over a few buckets (order_id modulo the bucket
+-- count) so concurrent checkouts do not all queue on the same row; reports sum the buckets.
+CREATE TABLE `daily_sales` (
+  `sale_date` DATE NOT NULL,
+  `bucket` TINYINT NOT NULL,
+  `order_count` INT NOT NULL DEFAULT 0,
+  `items_sold` INT NOT NULL DEFAULT 0,
+  `revenue` DECIMAL(14, 2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`sale_date`, `bucket`)
+) ENGINE=InnoDB;
+
+-- -----------------------------------------------------
+-- Table `product_sales`
+-- -----------------------------------------------------
+-- Units sold and revenue per product and day, maintained alongside `daily_sales`.
+CREATE TABLE `product_sales` (
+  `sale_date` DATE NOT NULL,
+  `product_id` INT NOT NULL,
+  `quantity_sold` INT NOT NULL DEFAULT 0,
+  `revenue` DECIMAL(14, 2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`sale_date`, `product_id`),
+  CONSTRAINT `fk_product_sales_products`
+    FOREIGN KEY (`product_id`)
+    REFERENCES `products` (`product_id`)
+    ON DELETE CASCADE
+) ENGINE=InnoDB;
+
 -- -----------------------------------------------------
 -- Sample Data Insertion
 -- -----------------------------------------------------
@@ -121,3 +198,18 @@ INSERT INTO `orders` (`customer_id`, `total_amount`, `status`, `payment_method`)
 INSERT INTO `order_items` (`order_id`, `product_id`, `quantity`, `price_at_purchase`) VALUES
 (1, 1, 1, 1299.99),
 (1, 2, 1, 25.50);
+
+-- Summarize the sample orders (the app keeps the summaries current from here on).
+INSERT INTO `daily_sales` (`sale_date`, `bucket`, `order_count`, `items_sold`, `revenue`)
+SELECT DATE(o.`order_date`), o.`order_id` % 8, COUNT(*), SUM(i.`items`), SUM(o.`total_amount`)
+FROM `orders` o
+JOIN (SELECT `order_id`, SUM(`quantity`) AS `items` FROM `order_items` GROUP BY `order_id`) i ON i.`order_id` = o.`order_id`
+WHERE o.`status` <> 'Cancelled'
+GROUP BY DATE(o.`order_date`), o.`order_id` % 8;
+
+INSERT INTO `product_sales` (`sale_date`, `product_id`, `quantity_sold`, `revenue`)
+SELECT DATE(o.`order_date`), oi.`product_id`, SUM(oi.`quantity`), SUM(oi.`quantity` * oi.`price_at_purchase`)
+FROM `orders` o
+JOIN `order_items` oi ON oi.`order_id` = o.`order_id`
+WHERE o.`status` <> 'Cancelled'
+GROUP BY DATE(o.`order_date`), oi.`product_id`;
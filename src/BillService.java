@@ -0,0 +1,97 @@
+// BillService.java - Background PDF bill rendering for checkouts
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders PDF bills on a small pool of worker threads so checkout never waits for iText or the disk.
+ * Work is held in a bounded queue; when it is full, new bills fail fast instead of piling up
+ * or falling back to the caller's thread (which would be the Swing EDT).
+ */
+class BillService {
+
+    /**
+     * Progress callbacks for bills. They are called on the worker thread that handles the bill,
+     * so Swing listeners must hop to the EDT themselves.
+     */
+    interface BillListener {
+        void billQueued(int orderId);
+        void billStarted(int orderId);
+        void billCompleted(int orderId, Path billPath);
+        void billFailed(int orderId, Throwable error);
+    }
+
+    private final Path billsDir;
+    private final BillListener listener;
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * @param billsDir Directory the PDFs are written to.
+     * @param workerCount Number of bills rendered at the same time.
+     * @param queueCapacity Number of bills that may wait for a worker before new ones are rejected.
+     */
+    public BillService(Path billsDir, int workerCount, int queueCapacity, BillListener listener) {
+        this.billsDir = billsDir;
+        this.listener = listener;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "bill-renderer-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Queues a bill for rendering and returns immediately.
+     * @return A future completed with the path of the PDF, or exceptionally if rendering fails or the queue is full.
+     */
+    public CompletableFuture<Path> submit(Order order, Customer customer) {
+        int orderId = order.getOrderId();
+        CompletableFuture<Path> result = new CompletableFuture<>();
+        try {
+            listener.billQueued(orderId);
+            workers.execute(() -> {
+                listener.billStarted(orderId);
+                try {
+                    Path billPath = PdfGenerator.writeBill(order, customer, billsDir);
+                    listener.billCompleted(orderId, billPath);
+                    result.complete(billPath);
+                } catch (Exception e) {
+                    listener.billFailed(orderId, e);
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            RejectedExecutionException error = new RejectedExecutionException(
+                    "Bill queue is full (" + workers.getQueue().size() + " waiting), order " + orderId + " was not rendered.", e);
+            listener.billFailed(orderId, error);
+            result.completeExceptionally(error);
+        }
+        return result;
+    }
+
+    public int getPendingCount() {
+        return workers.getQueue().size() + workers.getActiveCount();
+    }
+
+    /**
+     * Stops accepting bills and waits up to {@code timeoutMillis} for queued ones to finish.
+     */
+    public void shutdown(long timeoutMillis) {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                System.err.println("BillService: " + getPendingCount() + " bill(s) still pending at shutdown.");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,389 @@
+// BillTemplate.java - Template-based layout engine for PDF bills
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfImportedPage;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfStream;
+import com.itextpdf.text.pdf.PdfWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lays out bills straight onto the PDF content stream instead of going through iText's
+ * Paragraph/PdfPTable layout. The parts that are the same on every bill (store header,
+ * item table header row and footer) are rendered once per JVM into a small PDF and stamped
+ * into each bill as imported XObjects; only the order-specific text is laid out per bill,
+ * from values that are formatted up front.
+ */
+final class BillTemplate {
+    private static final float MARGIN = 36;
+    private static final float PAGE_TOP = PageSize.A4.getHeight() - MARGIN;
+    private static final float CONTENT_WIDTH = PageSize.A4.getWidth() - 2 * MARGIN;
+    private static final float LINE_GAP = 16; // the blank line the old flow layout put between sections
+
+    private static final BaseFont HELVETICA = createFont(BaseFont.HELVETICA);
+    private static final BaseFont HELVETICA_BOLD = createFont(BaseFont.HELVETICA_BOLD);
+
+    // Item table: S.No., Product Name, Quantity, Unit Price, Total
+    private static final String[] COLUMN_TITLES = {"S.No.", "Product Name", "Quantity", "Unit Price", "Total"};
+    private static final float[] COLUMN_WIDTHS = scaleToContentWidth(0.8f, 3f, 1f, 1.5f, 1.5f);
+    private static final int[] COLUMN_ALIGNMENT = {
+            Element.ALIGN_RIGHT, Element.ALIGN_LEFT, Element.ALIGN_RIGHT, Element.ALIGN_RIGHT, Element.ALIGN_RIGHT};
+    private static final float CELL_PADDING = 5;
+    private static final float ROW_LEADING = 12;
+    private static final float BODY_SIZE = 10;
+    // Distance from the vertical middle of a line of body text down to its baseline
+    private static final float TEXT_CENTER_OFFSET = 3.5f;
+
+    // Static sections, rendered once: page 1 = store header, page 2 = table header row, page 3 = footer
+    private static final float HEADER_HEIGHT = 70;
+    private static final float TABLE_HEADER_HEIGHT = 24;
+    private static final float FOOTER_HEIGHT = 52;
+    private static final byte[] STATIC_SECTIONS = renderStaticSections();
+
+    // A parsed copy per rendering thread: PdfReader is not thread-safe, but one reader can be imported by any number of bills
+    private static final ThreadLocal<PdfReader> STATIC_READER = ThreadLocal.withInitial(BillTemplate::newStaticSectionsReader);
+
+    private static final DateTimeFormatter ORDER_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private BillTemplate() {
+    }
+
+    /**
+     * Renders the bill for an order to {@code out}. The stream is not closed.
+     */
+    static void render(Order order, Customer customer, OutputStream out) throws DocumentException {
+        Document document = new Document(PageSize.A4, MARGIN, MARGIN, MARGIN, MARGIN);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        writer.setCompressionLevel(PdfStream.BEST_SPEED); // bills are small; deflate time dominates at the default level
+        document.open();
+
+        PdfReader staticSections = STATIC_READER.get();
+        Page page = new Page(document, writer,
+                writer.getImportedPage(staticSections, 1),
+                writer.getImportedPage(staticSections, 2),
+                writer.getImportedPage(staticSections, 3));
+
+        page.stamp(page.storeHeader, HEADER_HEIGHT);
+        page.gap();
+
+        page.heading("Bill/Invoice Details");
+        page.labelledLine("Order ID: ", String.valueOf(order.getOrderId()));
+        page.labelledLine("Order Date: ", order.getOrderDate() == null ? "" : ORDER_DATE_FORMAT.format(order.getOrderDate().toInstant()));
+        page.labelledLine("Status: ", order.getStatus());
+        if (order.getPaymentMethod() != null && !order.getPaymentMethod().isEmpty()) {
+            page.labelledLine("Payment Method: ", order.getPaymentMethod());
+        }
+        page.gap();
+
+        page.heading("Customer Information");
+        page.labelledLine("Name: ", customer.getName());
+        page.labelledLine("Email: ", customer.getEmail());
+        if (customer.getPhoneNumber() != null && !customer.getPhoneNumber().isEmpty()) {
+            page.labelledLine("Phone: ", customer.getPhoneNumber());
+        }
+        if (customer.getAddress() != null && !customer.getAddress().isEmpty()) {
+            page.labelledLine("Address: ", customer.getAddress());
+        }
+        page.gap();
+
+        page.heading("Order Items");
+        page.itemTable(formatRows(order.getOrderItems()));
+        page.gap();
+
+        page.ensureSpace(20);
+        page.text(HELVETICA_BOLD, 14, BaseColor.BLACK, Element.ALIGN_RIGHT,
+                "Total Amount: $" + order.getTotalAmount().setScale(2, RoundingMode.HALF_UP), MARGIN + CONTENT_WIDTH, page.y - 14);
+        page.y -= 20;
+        page.gap();
+
+        page.stamp(page.footer, FOOTER_HEIGHT);
+        document.close();
+    }
+
+    /**
+     * Formats every cell of the item table before layout starts, so the layout loop only measures and draws.
+     */
+    private static List<String[]> formatRows(List<OrderItem> items) {
+        List<String[]> rows = new ArrayList<>(items.size());
+        int sNo = 1;
+        for (OrderItem item : items) {
+            BigDecimal price = item.getPriceAtPurchase();
+            BigDecimal total = price.multiply(BigDecimal.valueOf(item.getQuantity()));
+            rows.add(new String[]{
+                    String.valueOf(sNo++),
+                    item.getProductName() == null ? "" : item.getProductName(),
+                    String.valueOf(item.getQuantity()),
+                    "$" + price.setScale(2, RoundingMode.HALF_UP),
+                    "$" + total.setScale(2, RoundingMode.HALF_UP)
+            });
+        }
+        return rows;
+    }
+
+    /**
+     * Cursor over the bill being written: knows the current vertical position and starts new pages as needed.
+     */
+    private static final class Page {
+        private final Document document;
+        private final PdfWriter writer;
+        private final PdfImportedPage storeHeader;
+        private final PdfImportedPage tableHeader;
+        private final PdfImportedPage footer;
+        private float y = PAGE_TOP;
+
+        private Page(Document document, PdfWriter writer, PdfImportedPage storeHeader, PdfImportedPage tableHeader, PdfImportedPage footer) {
+            this.document = document;
+            this.writer = writer;
+            this.storeHeader = storeHeader;
+            this.tableHeader = tableHeader;
+            this.footer = footer;
+        }
+
+        private PdfContentByte canvas() {
+            return writer.getDirectContent();
+        }
+
+        /**
+         * @return true if a new page had to be started.
+         */
+        private boolean ensureSpace(float height) {
+            if (y - height >= MARGIN) {
+                return false;
+            }
+            document.newPage();
+            y = PAGE_TOP;
+            return true;
+        }
+
+        private void gap() {
+            y -= LINE_GAP;
+        }
+
+        private void stamp(PdfImportedPage section, float height) {
+            ensureSpace(height);
+            canvas().addTemplate(section, MARGIN, y - height);
+            y -= height;
+        }
+
+        private void heading(String text) {
+            ensureSpace(18);
+            text(HELVETICA_BOLD, 12, BaseColor.BLACK, Element.ALIGN_LEFT, text, MARGIN, y - 12);
+            y -= 18;
+        }
+
+        private void labelledLine(String label, String value) {
+            ensureSpace(14);
+            float baseline = y - BODY_SIZE;
+            text(HELVETICA, BODY_SIZE, BaseColor.BLACK, Element.ALIGN_LEFT, label, MARGIN, baseline);
+            text(HELVETICA_BOLD, BODY_SIZE, BaseColor.BLACK, Element.ALIGN_LEFT, value == null ? "" : value,
+                    MARGIN + HELVETICA.getWidthPoint(label, BODY_SIZE), baseline);
+            y -= 14;
+        }
+
+        private void itemTable(List<String[]> rows) {
+            ensureSpace(TABLE_HEADER_HEIGHT + 22);
+            y -= 10; // spacing before the table
+            stamp(tableHeader, TABLE_HEADER_HEIGHT);
+            PdfContentByte cb = canvas();
+            for (String[] row : rows) {
+                List<String> nameLines = wrap(row[1], COLUMN_WIDTHS[1] - 2 * CELL_PADDING);
+                float rowHeight = nameLines.size() * ROW_LEADING + 2 * CELL_PADDING;
+                if (ensureSpace(rowHeight)) {
+                    stamp(tableHeader, TABLE_HEADER_HEIGHT); // repeat the column titles on every page
+                    cb = canvas();
+                }
+                float top = y;
+                cb.setColorStroke(BaseColor.GRAY);
+                cb.setLineWidth(0.5f);
+                float x = MARGIN;
+                for (float width : COLUMN_WIDTHS) {
+                    cb.rectangle(x, top - rowHeight, width, rowHeight);
+                    x += width;
+                }
+                cb.stroke();
+
+                // One text object per row: the font and colour are set once for all five cells
+                cb.beginText();
+                cb.setFontAndSize(HELVETICA, BODY_SIZE);
+                cb.setColorFill(BaseColor.BLACK);
+                float middle = top - rowHeight / 2 - TEXT_CENTER_OFFSET;
+                x = MARGIN;
+                for (int column = 0; column < row.length; column++) {
+                    if (column == 1) {
+                        float baseline = top - CELL_PADDING - ROW_LEADING / 2 - TEXT_CENTER_OFFSET;
+                        for (String line : nameLines) {
+                            cellText(cb, line, column, x, baseline);
+                            baseline -= ROW_LEADING;
+                        }
+                    } else {
+                        cellText(cb, row[column], column, x, middle);
+                    }
+                    x += COLUMN_WIDTHS[column];
+                }
+                cb.endText();
+                y -= rowHeight;
+            }
+            y -= 10; // spacing after the table
+        }
+
+        private void cellText(PdfContentByte cb, String text, int column, float x, float baseline) {
+            int alignment = COLUMN_ALIGNMENT[column];
+            float anchor = alignment == Element.ALIGN_RIGHT ? x + COLUMN_WIDTHS[column] - CELL_PADDING : x + CELL_PADDING;
+            cb.showTextAligned(alignment, text, anchor, baseline, 0);
+        }
+
+        private void text(BaseFont font, float size, BaseColor color, int alignment, String text, float x, float baseline) {
+            drawText(canvas(), font, size, color, alignment, text, x, baseline);
+        }
+    }
+
+    /**
+     * Splits text into lines that fit {@code width} at body size, breaking on spaces where possible.
+     */
+    private static List<String> wrap(String text, float width) {
+        List<String> lines = new ArrayList<>(1);
+        if (HELVETICA.getWidthPoint(text, BODY_SIZE) <= width) {
+            lines.add(text);
+            return lines;
+        }
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            String candidate = line.length() == 0 ? word : line + " " + word;
+            if (HELVETICA.getWidthPoint(candidate, BODY_SIZE) <= width) {
+                line.setLength(0);
+                line.append(candidate);
+                continue;
+            }
+            if (line.length() > 0) {
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+            // A single word wider than the column is broken by characters
+            while (HELVETICA.getWidthPoint(word, BODY_SIZE) > width && word.length() > 1) {
+                int end = word.length() - 1;
+                while (end > 1 && HELVETICA.getWidthPoint(word.substring(0, end), BODY_SIZE) > width) {
+                    end--;
+                }
+                lines.add(word.substring(0, end));
+                word = word.substring(end);
+            }
+            line.append(word);
+        }
+        if (line.length() > 0) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private static void drawText(PdfContentByte cb, BaseFont font, float size, BaseColor color, int alignment, String text, float x, float baseline) {
+        cb.beginText();
+        cb.setFontAndSize(font, size);
+        cb.setColorFill(color);
+        cb.showTextAligned(alignment, text, x, baseline, 0);
+        cb.endText();
+    }
+
+    private static void separator(PdfContentByte cb, float y) {
+        float lineWidth = CONTENT_WIDTH * 0.9f;
+        cb.setColorStroke(BaseColor.GRAY);
+        cb.setLineWidth(1);
+        cb.moveTo((CONTENT_WIDTH - lineWidth) / 2, y);
+        cb.lineTo((CONTENT_WIDTH + lineWidth) / 2, y);
+        cb.stroke();
+    }
+
+    /**
+     * Renders the parts every bill shares into a small three-page PDF, one page per section,
+     * each page exactly the size of its section.
+     */
+    private static byte[] renderStaticSections() {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            Document document = new Document(new Rectangle(CONTENT_WIDTH, HEADER_HEIGHT), 0, 0, 0, 0);
+            PdfWriter writer = PdfWriter.getInstance(document, buffer);
+            document.open();
+            float center = CONTENT_WIDTH / 2;
+
+            PdfContentByte cb = writer.getDirectContent();
+            drawText(cb, HELVETICA_BOLD, 20, BaseColor.DARK_GRAY, Element.ALIGN_CENTER, PdfGenerator.STORE_NAME, center, HEADER_HEIGHT - 20);
+            drawText(cb, HELVETICA, 8, BaseColor.GRAY, Element.ALIGN_CENTER, PdfGenerator.STORE_ADDRESS, center, HEADER_HEIGHT - 38);
+            drawText(cb, HELVETICA, 8, BaseColor.GRAY, Element.ALIGN_CENTER, PdfGenerator.STORE_CONTACT, center, HEADER_HEIGHT - 50);
+            separator(cb, 6);
+
+            document.setPageSize(new Rectangle(CONTENT_WIDTH, TABLE_HEADER_HEIGHT));
+            document.newPage();
+            cb = writer.getDirectContent();
+            float x = 0;
+            for (int column = 0; column < COLUMN_TITLES.length; column++) {
+                cb.setColorFill(BaseColor.LIGHT_GRAY);
+                cb.rectangle(x, 0, COLUMN_WIDTHS[column], TABLE_HEADER_HEIGHT);
+                cb.fill();
+                cb.setColorStroke(BaseColor.GRAY);
+                cb.setLineWidth(0.5f);
+                cb.rectangle(x, 0, COLUMN_WIDTHS[column], TABLE_HEADER_HEIGHT);
+                cb.stroke();
+                drawText(cb, HELVETICA_BOLD, 12, BaseColor.BLACK, Element.ALIGN_CENTER, COLUMN_TITLES[column],
+                        x + COLUMN_WIDTHS[column] / 2, TABLE_HEADER_HEIGHT / 2 - 4);
+                x += COLUMN_WIDTHS[column];
+            }
+
+            document.setPageSize(new Rectangle(CONTENT_WIDTH, FOOTER_HEIGHT));
+            document.newPage();
+            cb = writer.getDirectContent();
+            separator(cb, FOOTER_HEIGHT - 6);
+            drawText(cb, HELVETICA, 10, BaseColor.BLACK, Element.ALIGN_CENTER, "Thank you for your purchase!", center, FOOTER_HEIGHT - 26);
+            drawText(cb, HELVETICA, 8, BaseColor.GRAY, Element.ALIGN_CENTER, "Visit us again soon!", center, FOOTER_HEIGHT - 42);
+
+            document.close();
+            return buffer.toByteArray();
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Could not render the static bill sections", e);
+        }
+    }
+
+    private static PdfReader newStaticSectionsReader() {
+        try {
+            return new PdfReader(STATIC_SECTIONS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static float[] scaleToContentWidth(float... ratios) {
+        float sum = 0;
+        for (float ratio : ratios) {
+            sum += ratio;
+        }
+        float[] widths = new float[ratios.length];
+        for (int i = 0; i < ratios.length; i++) {
+            widths[i] = CONTENT_WIDTH * ratios[i] / sum;
+        }
+        return widths;
+    }
+
+    private static BaseFont createFont(String name) {
+        try {
+            return BaseFont.createFont(name, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("Could not load font " + name, e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+// BulkBillExporter.java - Renders the bills of every order in parallel into one ZIP archive
+import com.itextpdf.text.DocumentException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Month-end bill export. Orders are streamed from the database with a cursor, rendered to PDF
+ * by a pool of workers, and appended to a single ZIP by one writer thread as they finish.
+ * At most {@code maxInFlight} orders are held in memory at once, and nothing is written to temp files.
+ */
+class BulkBillExporter {
+    private static final int PROGRESS_INTERVAL = 100;
+
+    /**
+     * Receives progress while the export runs, on the archive writer thread.
+     */
+    interface ProgressListener {
+        void progress(int billsWritten, double billsPerSecond);
+    }
+
+    /**
+     * Outcome of an export.
+     */
+    static class ExportSummary {
+        private final int billsWritten;
+        private final int billsFailed;
+        private final long elapsedMillis;
+
+        ExportSummary(int billsWritten, int billsFailed, long elapsedMillis) {
+            this.billsWritten = billsWritten;
+            this.billsFailed = billsFailed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getBillsWritten() { return billsWritten; }
+        public int getBillsFailed() { return billsFailed; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public double getBillsPerSecond() { return billsPerSecond(billsWritten, elapsedMillis); }
+
+        @Override
+        public String toString() {
+            return String.format("%d bills written (%d failed) in %.1f s, %.1f bills/second",
+                    billsWritten, billsFailed, elapsedMillis / 1000.0, getBillsPerSecond());
+        }
+    }
+
+    // Marks the end of the rendered-bill queue for the writer thread
+    private static final RenderedBill END_OF_BILLS = new RenderedBill(-1, null);
+
+    private final DatabaseManager dbManager;
+    private final int workerCount;
+    private final int maxInFlight;
+
+    /**
+     * @param workerCount Number of threads rendering PDFs.
+     * @param maxInFlight Maximum number of orders being rendered or waiting to be written at any time.
+     */
+    public BulkBillExporter(DatabaseManager dbManager, int workerCount, int maxInFlight) {
+        this.dbManager = dbManager;
+        this.workerCount = workerCount;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Renders the bill of every order into {@code zipFile}, one {@code bill_order_<id>.pdf} entry per order.
+     * A bill that fails to render is logged and skipped; a failure writing the archive aborts the export.
+     */
+    public ExportSummary exportToZip(Path zipFile, ProgressListener listener) throws SQLException, IOException {
+        long start = System.nanoTime();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService renderers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "bill-export-renderer-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // Permits bound the orders in memory: taken before a render is queued, given back once the bill is written
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        BlockingQueue<RenderedBill> rendered = new LinkedBlockingQueue<>();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<IOException> writeError = new AtomicReference<>();
+
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zipFile), 64 * 1024))) {
+            Thread writer = new Thread(() -> {
+                while (true) {
+                    RenderedBill bill;
+                    try {
+                        bill = rendered.take();
+                    } catch (InterruptedException e) {
+                        writeError.compareAndSet(null, new IOException("Bill archive writer was interrupted."));
+                        return;
+                    }
+                    if (bill == END_OF_BILLS) {
+                        return;
+                    }
+                    // After a write error keep draining, so renderers and the producer never block on a full pipeline
+                    if (bill.pdf != null && writeError.get() == null) {
+                        try {
+                            zip.putNextEntry(new ZipEntry("bill_order_" + bill.orderId + ".pdf"));
+                            zip.write(bill.pdf);
+                            zip.closeEntry();
+                            int count = written.incrementAndGet();
+                            if (listener != null && count % PROGRESS_INTERVAL == 0) {
+                                listener.progress(count, billsPerSecond(count, elapsedMillis(start)));
+                            }
+                        } catch (IOException e) {
+                            writeError.compareAndSet(null, e);
+                        }
+                    }
+                    inFlight.release();
+                }
+            }, "bill-export-writer");
+            writer.start();
+
+            try {
+                dbManager.streamOrdersWithCustomers((order, customer) -> {
+                    IOException error = writeError.get();
+                    if (error != null) {
+                        throw new UncheckedIOException(error); // stop reading orders, the archive is broken
+                    }
+                    inFlight.acquireUninterruptibly();
+                    renderers.execute(() -> rendered.add(new RenderedBill(order.getOrderId(), render(order, customer, failed))));
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                renderers.shutdown();
+                awaitQuietly(renderers);
+                rendered.add(END_OF_BILLS);
+                joinQuietly(writer);
+            }
+            if (writeError.get() != null) {
+                throw writeError.get();
+            }
+        } finally {
+            renderers.shutdownNow();
+        }
+
+        ExportSummary summary = new ExportSummary(written.get(), failed.get(), elapsedMillis(start));
+        if (listener != null) {
+            listener.progress(summary.getBillsWritten(), summary.getBillsPerSecond());
+        }
+        return summary;
+    }
+
+    private static byte[] render(Order order, Customer customer, AtomicInteger failed) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 * 1024);
+            PdfGenerator.writeBill(order, customer, buffer);
+            return buffer.toByteArray();
+        } catch (DocumentException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("BulkBillExporter: Failed to render bill for order " + order.getOrderId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void awaitQuietly(ExecutorService executor) {
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static double billsPerSecond(int bills, long elapsedMillis) {
+        return elapsedMillis == 0 ? bills : bills * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * A rendered bill waiting to be written; {@code pdf} is null if rendering failed.
+     */
+    private static final class RenderedBill {
+        private final int orderId;
+        private final byte[] pdf;
+
+        private RenderedBill(int orderId, byte[] pdf) {
+            this.orderId = orderId;
+            this.pdf = pdf;
+        }
+    }
+}
@@ -13,10 +13,13 @@ class Cart {
     private Map<Integer, Integer> items;
     // Map to store product details for quick access without repeated DB lookups: Product ID -> Product object
     private Map<Integer, Product> productDetails;
+    // Map to store the stock reservation held for each product, if any: Product ID -> Reservation ID
+    private Map<Integer, Integer> reservations;
 
     public Cart() {
         this.items = new HashMap<>();
         this.productDetails = new HashMap<>();
+        this.reservations = new HashMap<>();
     }
 
     /**
@@ -40,6 +43,7 @@ class Cart {
     public void removeItem(int productId) {
         items.remove(productId);
         productDetails.remove(productId);
+        reservations.remove(productId);
     }
 
     /**
@@ -58,12 +62,51 @@ class Cart {
         }
     }
 
+    /**
+     * Replaces the stored details of a product in the cart, e.g. when its stock changed elsewhere.
+     * @param product The product's current details; ignored if the product is not in the cart.
+     */
+    public void updateProductDetails(Product product) {
+        if (items.containsKey(product.getProductId())) {
+            productDetails.put(product.getProductId(), product);
+        }
+    }
+
     /**
      * Clears all items from the cart.
      */
     public void clear() {
         items.clear();
         productDetails.clear();
+        reservations.clear();
+    }
+
+    /**
+     * Records the stock reservation that holds this product's quantity (see DatabaseManager.reserveStock).
+     * @param productId The ID of a product in the cart.
+     * @param reservationId The reservation ID.
+     */
+    public void setReservationId(int productId, int reservationId) {
+        if (items.containsKey(productId)) {
+            reservations.put(productId, reservationId);
+        }
+    }
+
+    /**
+     * Gets the stock reservation held for a product.
+     * @param productId The ID of the product.
+     * @return The reservation ID, or null if none is held.
+     */
+    public Integer getReservationId(int productId) {
+        return reservations.get(productId);
+    }
+
+    /**
+     * Gets every stock reservation the cart holds.
+     * @return An unmodifiable map of Product ID to Reservation ID.
+     */
+    public Map<Integer, Integer> getReservations() {
+        return Collections.unmodifiableMap(reservations);
     }
 
     /**
@@ -0,0 +1,296 @@
+// ConnectionPool.java - Bounded JDBC connection pool used by DatabaseManager
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small, bounded pool of physical MySQL connections.
+ * Callers borrow a connection with {@link #getConnection()} and give it back by closing it,
+ * so the usual try-with-resources blocks work unchanged. The pool keeps at least {@code minSize}
+ * connections open, never opens more than {@code maxSize}, validates connections on borrow,
+ * evicts connections that sat idle for too long and reports connections that were never returned.
+ */
+class ConnectionPool {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    // Idle connections, most recently returned first (LIFO keeps the hot connections warm)
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    // Connections currently handed out to callers, used for leak detection
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    // One permit per connection that may be borrowed at the same time
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool bounds: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Opens the minimum number of connections and starts the background housekeeping task.
+     * Fails fast if the database cannot be reached, so startup errors surface immediately.
+     */
+    public synchronized void start() throws SQLException {
+        for (int i = totalConnections.get(); i < minSize; i++) {
+            idle.offerLast(openEntry());
+        }
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_INTERVAL_MILLIS,
+                HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting at most the configured borrow timeout for one to become free.
+     * @return A connection that returns itself to the pool when closed.
+     * @throws SQLException if the pool is closed, the wait times out or a new connection cannot be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection ("
+                        + maxSize + " in use).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledEntry entry;
+            while ((entry = idle.pollFirst()) != null) {
+                if (isUsable(entry)) {
+                    break;
+                }
+                discard(entry);
+            }
+            if (entry == null) {
+                entry = openEntry();
+            }
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.borrowSite = new Throwable("Connection borrowed here");
+            entry.leakReported = false;
+            borrowed.add(entry);
+            return entry.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops housekeeping. Borrowed connections are closed as they come back.
+     */
+    public synchronized void close() {
+        closed = true;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    public int getActiveCount() { return borrowed.size(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getTotalCount() { return totalConnections.get(); }
+
+    private PooledEntry openEntry() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        physical.setAutoCommit(true);
+        totalConnections.incrementAndGet();
+        return new PooledEntry(physical);
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            return !entry.physical.isClosed() && entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledEntry entry) {
+        totalConnections.decrementAndGet();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            System.err.println("ConnectionPool: Failed to close connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Called when a borrowed handle is closed. Resets the session state a caller may have left behind
+     * and puts the connection back on the idle list, or drops it if it is broken or the pool is closed.
+     */
+    private void release(PooledEntry entry) {
+        borrowed.remove(entry);
+        entry.borrowSite = null;
+        boolean healthy;
+        try {
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            if (entry.readOnly) {
+                entry.physical.setReadOnly(false); // the next borrower expects the primary
+                entry.readOnly = false;
+            }
+            healthy = !entry.physical.isClosed();
+        } catch (SQLException e) {
+            healthy = false;
+        }
+        try {
+            if (healthy && !closed) {
+                entry.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(entry);
+            } else {
+                discard(entry);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Evicts connections idle longer than the idle timeout (while keeping {@code minSize} open)
+     * and logs borrowed connections that have been held past the leak threshold.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledEntry> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext()) {
+            PooledEntry entry = oldestFirst.next();
+            if (totalConnections.get() <= minSize) {
+                break;
+            }
+            if (now - entry.lastReturnedAt > idleTimeoutMillis && idle.remove(entry)) {
+                discard(entry);
+            }
+        }
+
+        for (PooledEntry entry : borrowed) {
+            Throwable site = entry.borrowSite;
+            if (!entry.leakReported && site != null && now - entry.borrowedAt > leakThresholdMillis) {
+                entry.leakReported = true;
+                System.err.println("ConnectionPool: Possible connection leak, connection held for "
+                        + (now - entry.borrowedAt) + " ms.");
+                site.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * A physical connection plus the bookkeeping the pool needs for it.
+     */
+    private final class PooledEntry {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+        // Set through setReadOnly; with a replication URL it routes the connection to a replica
+        private volatile boolean readOnly;
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * The logical connection handed to callers. Closing it returns the physical connection to the pool;
+     * any use after that fails instead of silently sharing the connection with another caller.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+
+        private Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + (returned ? ", returned" : "") + "]";
+                case "setReadOnly":
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    entry.physical.setReadOnly((Boolean) args[0]);
+                    entry.readOnly = (Boolean) args[0];
+                    return null;
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    try {
+                        return method.invoke(entry.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
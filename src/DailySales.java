@@ -0,0 +1,37 @@
+// DailySales.java - POJO for one day of the sales summary
+import java.math.BigDecimal;
+import java.sql.Date;
+
+/**
+ * POJO representing the sales of one day, as kept in the daily_sales summary table.
+ * Cancelled orders are not counted.
+ */
+class DailySales {
+    private Date saleDate;
+    private int orderCount;
+    private int itemsSold;
+    private BigDecimal revenue;
+
+    public DailySales(Date saleDate, int orderCount, int itemsSold, BigDecimal revenue) {
+        this.saleDate = saleDate;
+        this.orderCount = orderCount;
+        this.itemsSold = itemsSold;
+        this.revenue = revenue;
+    }
+
+    // Getters
+    public Date getSaleDate() { return saleDate; }
+    public int getOrderCount() { return orderCount; }
+    public int getItemsSold() { return itemsSold; }
+    public BigDecimal getRevenue() { return revenue; }
+
+    @Override
+    public String toString() {
+        return "DailySales{" +
+                "saleDate=" + saleDate +
+                ", orderCount=" + orderCount +
+                ", itemsSold=" + itemsSold +
+                ", revenue=" + revenue +
+                '}';
+    }
+}
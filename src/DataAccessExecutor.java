@@ -0,0 +1,206 @@
+// DataAccessExecutor.java - Runs database calls off the Swing EDT and delivers their results back on it
+import javax.swing.SwingUtilities;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * App-wide executor for DatabaseManager calls made by the GUI, in the spirit of SwingWorker:
+ * the query runs on a small bounded pool and its result or error is handed to a callback on the EDT.
+ *
+ * Tasks can carry a key naming what they load (e.g. "orders"). A new {@link #load} with the same key
+ * supersedes the previous one: a queued one is dropped and a running one finishes but its callbacks are
+ * discarded, so rapid re-clicks never show stale data or pile up work. {@link #update} is for writes,
+ * which must not be abandoned halfway: while one with the same key is in flight, repeats are ignored.
+ */
+class DataAccessExecutor {
+
+    /**
+     * A database call to run in the background.
+     */
+    interface Query<T> {
+        T run() throws SQLException;
+    }
+
+    /**
+     * Handle to a submitted task.
+     */
+    final class Task {
+        private final String key;
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+        // The success or error callback to run on the EDT, set by the worker when the query returns
+        private volatile Runnable outcome;
+
+        private Task(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Drops the task if it has not started; if it is running, lets it finish but discards its callbacks.
+         * JDBC calls are not interrupted, since that can leave a pooled connection in an unknown state.
+         */
+        public void cancel() {
+            cancelled = true;
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+                workers.remove((Runnable) f); // free its queue slot now rather than when a worker reaches it
+            }
+        }
+    }
+
+    private final ThreadPoolExecutor workers;
+    // Key -> latest task submitted under it and not yet finished
+    private final Map<String, Task> current = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Consumer<Boolean> busyListener;
+
+    /**
+     * @param workerCount Number of database calls run at the same time; keep it below the connection pool size.
+     * @param queueCapacity Number of calls that may wait for a worker before new ones fail.
+     * @param busyListener Called on the EDT with true when the first task starts waiting and false when the last one ends.
+     */
+    public DataAccessExecutor(int workerCount, int queueCapacity, Consumer<Boolean> busyListener) {
+        this.busyListener = busyListener;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "data-access-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Runs a read, superseding any earlier task with the same key.
+     * @param key Names what is being loaded, or null for a task that nothing supersedes.
+     */
+    public <T> Task load(String key, Query<T> query, Consumer<T> onSuccess, Consumer<SQLException> onError) {
+        if (key != null) {
+            cancel(key);
+        }
+        return start(key, query, onSuccess, onError);
+    }
+
+    /**
+     * Runs a write unless one with the same key is still in flight.
+     * @return The task, or null if the write was ignored because an earlier one has not finished.
+     */
+    public <T> Task update(String key, Query<T> query, Consumer<T> onSuccess, Consumer<SQLException> onError) {
+        if (key != null && isLoading(key)) {
+            return null;
+        }
+        return start(key, query, onSuccess, onError);
+    }
+
+    /**
+     * Cancels the task currently registered under {@code key}, if any.
+     */
+    public void cancel(String key) {
+        Task previous = current.remove(key);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * @return true while a task with this key is queued or running.
+     */
+    public boolean isLoading(String key) {
+        return current.containsKey(key);
+    }
+
+    private <T> Task start(String key, Query<T> query, Consumer<T> onSuccess, Consumer<SQLException> onError) {
+        Task task = new Task(key);
+        if (key != null) {
+            current.put(key, task);
+        }
+        if (pending.getAndIncrement() == 0) {
+            fireBusy(true);
+        }
+        // done() runs exactly once, whether the task completes or is cancelled before it starts
+        FutureTask<Void> future = new FutureTask<Void>(() -> {
+            try {
+                T result = query.run();
+                task.outcome = () -> onSuccess.accept(result);
+            } catch (SQLException e) {
+                task.outcome = () -> onError.accept(e);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                task.outcome = () -> onError.accept(new SQLException("Unexpected error: " + e, e));
+            }
+            return null;
+        }) {
+            @Override
+            protected void done() {
+                finish(task);
+            }
+        };
+        task.future = future;
+        try {
+            workers.execute(future);
+            if (task.cancelled) {
+                future.cancel(false); // cancelled while it was being submitted
+            }
+        } catch (RejectedExecutionException e) {
+            SQLException error = new SQLTransientException(
+                    "Too many database requests are waiting (" + workers.getQueue().size() + "). Please try again.", e);
+            task.outcome = () -> onError.accept(error);
+            finish(task);
+        }
+        return task;
+    }
+
+    /**
+     * Hands the outcome of a task to the EDT, unless the task was cancelled or superseded in the meantime.
+     */
+    private void finish(Task task) {
+        SwingUtilities.invokeLater(() -> {
+            if (task.key != null) {
+                current.remove(task.key, task);
+            }
+            try {
+                Runnable outcome = task.outcome;
+                if (!task.cancelled && outcome != null) {
+                    outcome.run();
+                }
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    busyListener.accept(false);
+                }
+            }
+        });
+    }
+
+    private void fireBusy(boolean busy) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            busyListener.accept(busy);
+        } else {
+            SwingUtilities.invokeLater(() -> busyListener.accept(busy));
+        }
+    }
+
+    /**
+     * Stops accepting work and waits up to {@code timeoutMillis} for running calls to return.
+     */
+    public void shutdown(long timeoutMillis) {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                System.err.println("DataAccessExecutor: " + workers.getActiveCount() + " database call(s) still running at shutdown.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
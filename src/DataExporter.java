@@ -0,0 +1,317 @@
+// DataExporter.java - Streams orders or products from the database into a CSV or NDJSON file
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports for accounting. Rows come from a streaming database cursor and are formatted straight into a
+ * buffered writer, optionally through gzip, so nothing but the current row is held in memory whatever
+ * the size of the table. A failed export deletes its partial file.
+ */
+class DataExporter {
+    private static final int PROGRESS_INTERVAL = 10_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Output format: CSV with a header line (RFC 4180 quoting), or one JSON object per line.
+     */
+    enum Format {
+        CSV("csv"), NDJSON("ndjson");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+    }
+
+    /**
+     * Receives progress while the export runs, on the exporting thread.
+     */
+    interface ProgressListener {
+        void progress(long rowsWritten, double rowsPerSecond);
+    }
+
+    /**
+     * Outcome of an export.
+     */
+    static class ExportSummary {
+        private final long rowsWritten;
+        private final long bytesWritten;
+        private final long elapsedMillis;
+
+        ExportSummary(long rowsWritten, long bytesWritten, long elapsedMillis) {
+            this.rowsWritten = rowsWritten;
+            this.bytesWritten = bytesWritten;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getRowsWritten() { return rowsWritten; }
+        public long getBytesWritten() { return bytesWritten; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public double getRowsPerSecond() { return rowsPerSecond(rowsWritten, elapsedMillis); }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows (%d KB) in %.1f s, %.0f rows/second",
+                    rowsWritten, bytesWritten / 1024, elapsedMillis / 1000.0, getRowsPerSecond());
+        }
+    }
+
+    /**
+     * The query an export reads from.
+     */
+    private interface RowSource {
+        long stream(DatabaseManager.RowSink sink) throws SQLException;
+    }
+
+    private final DatabaseManager dbManager;
+
+    public DataExporter(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Writes one row per order line, with the order and customer columns repeated on each line.
+     */
+    public ExportSummary exportOrders(Path file, Format format, boolean gzip, ProgressListener listener) throws SQLException, IOException {
+        return export(dbManager::streamOrderLines, file, format, gzip, listener);
+    }
+
+    public ExportSummary exportProducts(Path file, Format format, boolean gzip, ProgressListener listener) throws SQLException, IOException {
+        return export(dbManager::streamProducts, file, format, gzip, listener);
+    }
+
+    private ExportSummary export(RowSource source, Path file, Format format, boolean gzip, ProgressListener listener)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(Files.newOutputStream(file));
+        boolean completed = false;
+        try {
+            long rows;
+            OutputStream out = gzip ? new GZIPOutputStream(counted, BUFFER_SIZE) : counted;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new JsonRowWriter(writer);
+                try {
+                    rows = source.stream(new DatabaseManager.RowSink() {
+                        private long written;
+
+                        @Override
+                        public void columns(String[] names) {
+                            try {
+                                rowWriter.columns(names);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+
+                        @Override
+                        public void row(Object[] values) {
+                            try {
+                                rowWriter.row(values);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e); // stop reading, the file is broken
+                            }
+                            if (listener != null && ++written % PROGRESS_INTERVAL == 0) {
+                                listener.progress(written, rowsPerSecond(written, elapsedMillis(start)));
+                            }
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            ExportSummary summary = new ExportSummary(rows, counted.count, elapsedMillis(start));
+            if (listener != null) {
+                listener.progress(summary.getRowsWritten(), summary.getRowsPerSecond());
+            }
+            completed = true;
+            return summary;
+        } finally {
+            if (!completed) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("DataExporter: Could not delete incomplete export " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static double rowsPerSecond(long rows, long elapsedMillis) {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Text for a column value: decimals without exponent, timestamps in ISO-8601 local time.
+     */
+    private static String text(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Formats rows into the output writer.
+     */
+    private interface RowWriter {
+        void columns(String[] names) throws IOException;
+        void row(Object[] values) throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        CsvRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void columns(String[] names) throws IOException {
+            row(names);
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (values[i] != null) { // NULL is an empty field
+                    writeField(text(values[i]));
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void writeField(String field) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < field.length() && !quote; i++) {
+                char c = field.charAt(i);
+                quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quote) {
+                out.write(field);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < field.length(); i++) {
+                char c = field.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+    }
+
+    private static final class JsonRowWriter implements RowWriter {
+        private final Writer out;
+        private String[] keys;
+
+        JsonRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void columns(String[] names) throws IOException {
+            // Every row repeats the keys, so they are escaped once up front
+            keys = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                StringBuilder key = new StringBuilder(names[i].length() + 4);
+                key.append(i == 0 ? "{" : ",");
+                appendString(key, names[i]);
+                keys[i] = key.append(':').toString();
+            }
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            StringBuilder line = new StringBuilder(256);
+            for (int i = 0; i < values.length; i++) {
+                line.append(keys[i]);
+                Object value = values[i];
+                if (value == null) {
+                    line.append("null");
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    line.append(text(value)); // decimals stay exact as JSON numbers
+                } else {
+                    appendString(line, text(value));
+                }
+            }
+            line.append("}\n");
+            out.append(line);
+        }
+
+        private static void appendString(StringBuilder sb, String s) {
+            sb.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '"': sb.append("\\\""); break;
+                    case '\\': sb.append("\\\\"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    case '\t': sb.append("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            sb.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            sb.append(c);
+                        }
+                }
+            }
+            sb.append('"');
+        }
+    }
+
+    /**
+     * Counts the bytes that reach the file, after compression.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
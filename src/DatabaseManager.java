@@ -1,421 +1,1680 @@
 // DatabaseManager.java - Handles all database operations (Simplified)
 import java.sql.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 class DatabaseManager {
+    // --- Connection pool defaults ---
+    private static final int DEFAULT_POOL_MIN_SIZE = 2;
+    private static final int DEFAULT_POOL_MAX_SIZE = 10;
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = 5_000;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = 60_000;
+
+    // --- Product cache defaults, tunable with -Dstore.productCache.size=N and -Dstore.productCache.ttlMillis=N ---
+    private static final int DEFAULT_PRODUCT_CACHE_SIZE = 5_000;
+    private static final long DEFAULT_PRODUCT_CACHE_TTL_MILLIS = 30_000;
+    // --- Stock reservations: cart holds expire after -Dstore.reservationTtlSeconds=N; expired ones are swept periodically ---
+    private static final int DEFAULT_RESERVATION_TTL_SECONDS = 15 * 60;
+    private static final long RESERVATION_SWEEP_INTERVAL_MILLIS = 60_000;
+    private static final int RESERVATION_SWEEP_BATCH_SIZE = 500;
+
+    // --- Stock change log: entries are kept this long, pruned by the sweeper thread in batches ---
+    private static final int STOCK_CHANGE_RETENTION_HOURS = 24;
+    private static final long STOCK_CHANGE_PRUNE_INTERVAL_MILLIS = 60 * 60_000;
+    private static final int STOCK_CHANGE_PRUNE_BATCH_SIZE = 10_000;
+
+    // InnoDB's default innodb_ft_min_token_size: shorter words are not in a FULLTEXT index
+    private static final int FULLTEXT_MIN_WORD_LENGTH = 3;
+
+    // --- Sales summaries: each day's daily_sales totals are spread over this many rows (mydb.sql uses the same count) ---
+    private static final int SALES_SUMMARY_BUCKETS = 8;
+
+    // --- Read replicas: after any work on the primary, reads stay on it for -Dstore.readYourWritesMillis=N (0 turns this off) ---
+    private static final long DEFAULT_READ_YOUR_WRITES_MILLIS = 5_000;
+
+    // --- Call metrics: a summary table is logged every -Dstore.metrics.logIntervalSeconds=N (0 turns it off) ---
+    private static final long DEFAULT_METRICS_LOG_INTERVAL_SECONDS = 5 * 60;
+
     private String url;
     private String username;
     private String password;
-    private Connection connection;
+    private final int poolMinSize;
+    private final int poolMaxSize;
+    private ConnectionPool pool;
+    // Set by connectInBackground; connections asked for before it finishes wait for it
+    private CompletableFuture<Void> pendingConnect;
+    private final boolean replicated;
+    private final long readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("store.readYourWritesMillis", DEFAULT_READ_YOUR_WRITES_MILLIS));
+    // Reads go to the primary until System.nanoTime() passes this
+    private volatile long primaryReadsUntilNanos = System.nanoTime();
+    private ScheduledExecutorService reservationSweeper;
+    private ScheduledExecutorService metricsReporter;
+    private final DbMetrics metrics = new DbMetrics();
+    private final int reservationTtlSeconds = Integer.getInteger("store.reservationTtlSeconds", DEFAULT_RESERVATION_TTL_SECONDS);
+    private final ProductCache productCache = new ProductCache(
+            Integer.getInteger("store.productCache.size", DEFAULT_PRODUCT_CACHE_SIZE),
+            Long.getLong("store.productCache.ttlMillis", DEFAULT_PRODUCT_CACHE_TTL_MILLIS));
 
     public DatabaseManager(String url, String username, String password) {
-        this.url = url;
+        this(url, Collections.emptyList(), username, password);
+    }
+
+    /**
+     * Sends catalog and history reads to read replicas and everything else to the primary.
+     * @param primaryUrl A {@code jdbc:mysql://host:port/db?options} URL of the primary; its database and options apply to all servers.
+     * @param replicaUrls {@code jdbc:mysql://host:port} URLs of the replicas; only their host and port are used. May be empty.
+     */
+    public DatabaseManager(String primaryUrl, List<String> replicaUrls, String username, String password) {
+        this(primaryUrl, replicaUrls, username, password, DEFAULT_POOL_MIN_SIZE, DEFAULT_POOL_MAX_SIZE);
+    }
+
+    public DatabaseManager(String url, String username, String password, int poolMinSize, int poolMaxSize) {
+        this(url, Collections.emptyList(), username, password, poolMinSize, poolMaxSize);
+    }
+
+    public DatabaseManager(String primaryUrl, List<String> replicaUrls, String username, String password, int poolMinSize, int poolMaxSize) {
+        this.replicated = !replicaUrls.isEmpty();
+        this.url = replicated ? replicationUrl(primaryUrl, replicaUrls) : primaryUrl;
         this.username = username;
         this.password = password;
-        this.connection = null;
+        this.poolMinSize = poolMinSize;
+        this.poolMaxSize = poolMaxSize;
+        this.pool = null;
     }
 
-    public void connect() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(url, username, password);
-            connection.setAutoCommit(true);
+    /**
+     * Starts the connection pool. Every operation below borrows a connection from it
+     * and returns it when done, so concurrent callers no longer share one socket.
+     */
+    public synchronized void connect() throws SQLException {
+        if (pool == null) {
+            ConnectionPool newPool = new ConnectionPool(url, username, password, poolMinSize, poolMaxSize,
+                    POOL_BORROW_TIMEOUT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS);
+            newPool.start();
+            pool = newPool;
+            reservationSweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "stock-reservation-sweeper");
+                t.setDaemon(true);
+                return t;
+            });
+            reservationSweeper.scheduleWithFixedDelay(this::sweepExpiredReservations, RESERVATION_SWEEP_INTERVAL_MILLIS,
+                    RESERVATION_SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            reservationSweeper.scheduleWithFixedDelay(this::sweepStockChanges, STOCK_CHANGE_PRUNE_INTERVAL_MILLIS,
+                    STOCK_CHANGE_PRUNE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            metrics.register();
+            long logInterval = Long.getLong("store.metrics.logIntervalSeconds", DEFAULT_METRICS_LOG_INTERVAL_SECONDS);
+            if (logInterval > 0) {
+                metricsReporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "db-metrics-reporter");
+                    t.setDaemon(true);
+                    return t;
+                });
+                metricsReporter.scheduleAtFixedRate(metrics::logSummary, logInterval, logInterval, TimeUnit.SECONDS);
+            }
         }
     }
 
-    public void close() {
-        if (connection != null) {
-            try {
-                if (!connection.getAutoCommit()) {
-                    connection.rollback();
+    /**
+     * Starts the connection pool on a background thread, so the first window can appear while the
+     * connections are opened. Database calls made before it finishes wait for it rather than fail.
+     * @return Completes when the pool is up, or exceptionally with the SQLException from {@link #connect()}.
+     */
+    public synchronized CompletableFuture<Void> connectInBackground() {
+        if (pendingConnect == null) {
+            pendingConnect = CompletableFuture.runAsync(() -> {
+                try {
+                    connect();
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
                 }
-                connection.close();
+            }, r -> {
+                Thread t = new Thread(r, "db-warm-up");
+                t.setDaemon(true);
+                t.start();
+            });
+        }
+        return pendingConnect;
+    }
+
+    public synchronized void close() {
+        pendingConnect = null;
+        if (pool != null) {
+            reservationSweeper.shutdownNow();
+            reservationSweeper = null;
+            if (metricsReporter != null) {
+                metricsReporter.shutdownNow();
+                metricsReporter = null;
+            }
+            pool.close();
+            pool = null;
+            System.out.println("DatabaseManager: " + productCache);
+            metrics.logSummary();
+            metrics.unregister();
+        }
+    }
+
+    /**
+     * @return The product cache, for its hit/miss statistics.
+     */
+    public ProductCache getProductCache() {
+        return productCache;
+    }
+
+    /**
+     * @return Latency, row and error figures of every public method, also available over JMX.
+     */
+    public DbMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static final String MYSQL_URL_PREFIX = "jdbc:mysql://";
+
+    /**
+     * Builds a Connector/J replication URL: the primary's host first (the source), then each replica's host,
+     * followed by the primary's database and options. Reads fall back to the primary when no replica is reachable.
+     */
+    static String replicationUrl(String primaryUrl, List<String> replicaUrls) {
+        StringBuilder url = new StringBuilder("jdbc:mysql:replication://").append(hostPart(primaryUrl));
+        for (String replicaUrl : replicaUrls) {
+            url.append(',').append(hostPart(replicaUrl));
+        }
+        String rest = primaryUrl.substring(MYSQL_URL_PREFIX.length() + hostPart(primaryUrl).length());
+        url.append(rest.isEmpty() || rest.startsWith("?") ? "/" + rest : rest);
+        return url.append(rest.contains("?") ? "&" : "?").append("readFromSourceWhenNoReplicas=true").toString();
+    }
+
+    private static String hostPart(String url) {
+        if (!url.startsWith(MYSQL_URL_PREFIX)) {
+            throw new IllegalArgumentException("Expected a " + MYSQL_URL_PREFIX + " URL: " + url);
+        }
+        String rest = url.substring(MYSQL_URL_PREFIX.length());
+        int end = 0;
+        while (end < rest.length() && rest.charAt(end) != '/' && rest.charAt(end) != '?') {
+            end++;
+        }
+        return rest.substring(0, end);
+    }
+
+    /**
+     * A primary connection. With replicas, using it keeps reads on the primary for the read-your-writes window,
+     * so a screen that refreshes right after a change sees the change even if the replicas lag.
+     */
+    private Connection getConnection() throws SQLException {
+        if (replicated) {
+            primaryReadsUntilNanos = System.nanoTime() + readYourWritesNanos;
+        }
+        return borrowConnection();
+    }
+
+    /**
+     * A connection for a read that may be served by a replica: catalog and order history reads whose
+     * results may be a moment behind the primary. Within the read-your-writes window it is a primary connection.
+     */
+    private Connection getReadConnection() throws SQLException {
+        Connection conn = borrowConnection();
+        if (replicated && System.nanoTime() - primaryReadsUntilNanos >= 0) {
+            try {
+                conn.setReadOnly(true); // Connector/J switches to a replica; the pool switches back on return
             } catch (SQLException e) {
-                e.printStackTrace();
+                conn.close();
+                throw e;
             }
         }
+        return conn;
     }
 
-    // --- Admin Operations ---
-    public Admin validateAdmin(String username, String password) throws SQLException {
-        String sql = "SELECT admin_id, username, password FROM admins WHERE username = ? AND password = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return new Admin(
-                            rs.getInt("admin_id"),
-                            rs.getString("username"),
-                            rs.getString("password")
-                    );
+    private Connection borrowConnection() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            current = awaitPendingConnect();
+        }
+        return metrics.instrument(current.getConnection());
+    }
+
+    private ConnectionPool awaitPendingConnect() throws SQLException {
+        CompletableFuture<Void> starting;
+        synchronized (this) {
+            starting = pendingConnect;
+        }
+        if (starting != null) {
+            try {
+                starting.join();
+            } catch (CompletionException e) {
+                throw new SQLException("Could not connect to the database: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        synchronized (this) {
+            if (pool == null) {
+                throw new SQLException("DatabaseManager is not connected.");
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Work done on one connection inside a transaction.
+     */
+    private interface TransactionWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs {@code work} in one transaction on a pooled connection: committed if it returns, rolled back if it throws.
+     */
+    private <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                if (replicated) {
+                    primaryReadsUntilNanos = System.nanoTime() + readYourWritesNanos; // measured from the commit
                 }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         }
-        return null;
     }
 
-    // --- Customer Operations ---
-    public int insertCustomer(Customer customer) throws SQLException {
-        String sql = "INSERT INTO customers (name, email, phone_number, address) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, customer.getName());
-            pstmt.setString(2, customer.getEmail());
-            pstmt.setString(3, customer.getPhoneNumber());
-            pstmt.setString(4, customer.getAddress());
-            if (pstmt.executeUpdate() > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+    // --- Admin Operations ---
+    public Admin validateAdmin(String username, String password) throws SQLException {
+        return metrics.time("validateAdmin", () -> {
+            String sql = "SELECT admin_id, username, password FROM admins WHERE username = ? AND password = ?";
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, username);
+                pstmt.setString(2, password);
+                try (ResultSet rs = pstmt.executeQuery()) {
                     if (rs.next()) {
-                        return rs.getInt(1);
+                        return new Admin(
+                                rs.getInt("admin_id"),
+                                rs.getString("username"),
+                                rs.getString("password")
+                        );
                     }
                 }
             }
-        }
-        return -1;
+            return null;
+        });
     }
 
-    public List<Customer> getAllCustomers() throws SQLException {
-        List<Customer> customers = new ArrayList<>();
-        String sql = "SELECT customer_id, name, email, phone_number, address FROM customers";
-        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                customers.add(new Customer(
-                        rs.getInt("customer_id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("phone_number"),
-                        rs.getString("address")
-                ));
+    // --- Customer Operations ---
+    public int insertCustomer(Customer customer) throws SQLException {
+        return metrics.time("insertCustomer", () -> {
+            String sql = "INSERT INTO customers (name, email, phone_number, address) VALUES (?, ?, ?, ?)";
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, customer.getName());
+                pstmt.setString(2, customer.getEmail());
+                pstmt.setString(3, customer.getPhoneNumber());
+                pstmt.setString(4, customer.getAddress());
+                if (pstmt.executeUpdate() > 0) {
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            return rs.getInt(1);
+                        }
+                    }
+                }
             }
-        }
-        return customers;
+            return -1;
+        });
     }
 
-    public Customer getCustomerById(int customerId) throws SQLException {
-        String sql = "SELECT customer_id, name, email, phone_number, address FROM customers WHERE customer_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, customerId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return new Customer(
+    public List<Customer> getAllCustomers() throws SQLException {
+        return metrics.time("getAllCustomers", () -> {
+            List<Customer> customers = new ArrayList<>();
+            String sql = "SELECT customer_id, name, email, phone_number, address FROM customers";
+            try (Connection conn = getReadConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    customers.add(new Customer(
                             rs.getInt("customer_id"),
                             rs.getString("name"),
                             rs.getString("email"),
                             rs.getString("phone_number"),
                             rs.getString("address")
-                    );
+                    ));
                 }
             }
-        }
-        return null;
+            return customers;
+        });
+    }
+
+    /**
+     * Finds customers whose email or name starts with {@code query}, ignoring case, ordered by name.
+     * Both are prefix matches, so they use the email and name indexes.
+     */
+    public List<Customer> searchCustomers(String query, int limit) throws SQLException {
+        return metrics.time("searchCustomers", () -> {
+            String sql = "SELECT customer_id, name, email, phone_number, address FROM customers " +
+                    "WHERE email LIKE ? ESCAPE '!' OR name LIKE ? ESCAPE '!' ORDER BY name, customer_id LIMIT ?";
+            List<Customer> customers = new ArrayList<>();
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                String prefix = escapeLike(query.trim()) + "%";
+                pstmt.setString(1, prefix);
+                pstmt.setString(2, prefix);
+                pstmt.setInt(3, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        customers.add(new Customer(
+                                rs.getInt("customer_id"),
+                                rs.getString("name"),
+                                rs.getString("email"),
+                                rs.getString("phone_number"),
+                                rs.getString("address")
+                        ));
+                    }
+                }
+            }
+            return customers;
+        });
+    }
+
+    public Customer getCustomerById(int customerId) throws SQLException {
+        return metrics.time("getCustomerById", () -> {
+            String sql = "SELECT customer_id, name, email, phone_number, address FROM customers WHERE customer_id = ?";
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, customerId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return new Customer(
+                                rs.getInt("customer_id"),
+                                rs.getString("name"),
+                                rs.getString("email"),
+                                rs.getString("phone_number"),
+                                rs.getString("address")
+                        );
+                    }
+                }
+            }
+            return null;
+        });
     }
 
     public boolean updateCustomer(Customer customer) throws SQLException {
-        String sql = "UPDATE customers SET name = ?, email = ?, phone_number = ?, address = ? WHERE customer_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, customer.getName());
-            pstmt.setString(2, customer.getEmail());
-            pstmt.setString(3, customer.getPhoneNumber());
-            pstmt.setString(4, customer.getAddress());
-            pstmt.setInt(5, customer.getCustomerId());
-            return pstmt.executeUpdate() > 0;
-        }
+        return metrics.time("updateCustomer", () -> {
+            String sql = "UPDATE customers SET name = ?, email = ?, phone_number = ?, address = ? WHERE customer_id = ?";
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, customer.getName());
+                pstmt.setString(2, customer.getEmail());
+                pstmt.setString(3, customer.getPhoneNumber());
+                pstmt.setString(4, customer.getAddress());
+                pstmt.setInt(5, customer.getCustomerId());
+                return pstmt.executeUpdate() > 0;
+            }
+        });
     }
 
     public boolean deleteCustomer(int customerId) throws SQLException {
-        String sql = "DELETE FROM customers WHERE customer_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, customerId);
-            return pstmt.executeUpdate() > 0;
-        }
+        return metrics.time("deleteCustomer", () -> {
+            String sql = "DELETE FROM customers WHERE customer_id = ?";
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, customerId);
+                return pstmt.executeUpdate() > 0;
+            }
+        });
     }
 
     // --- Customer Account Operations ---
     public int registerCustomerAccount(CustomerAccount customerAccount) throws SQLException {
-        String sql = "INSERT INTO customer_accounts (customer_id, username, password) VALUES (?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, customerAccount.getCustomerId());
-            pstmt.setString(2, customerAccount.getUsername());
-            pstmt.setString(3, customerAccount.getPassword());
-            if (pstmt.executeUpdate() > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        return rs.getInt(1);
+        return metrics.time("registerCustomerAccount", () -> {
+            String sql = "INSERT INTO customer_accounts (customer_id, username, password) VALUES (?, ?, ?)";
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setInt(1, customerAccount.getCustomerId());
+                pstmt.setString(2, customerAccount.getUsername());
+                pstmt.setString(3, customerAccount.getPassword());
+                if (pstmt.executeUpdate() > 0) {
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            return rs.getInt(1);
+                        }
                     }
                 }
             }
-        }
-        return -1;
+            return -1;
+        });
     }
 
     public boolean usernameExists(String username) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM customer_accounts WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
+        return metrics.time("usernameExists", () -> {
+            String sql = "SELECT COUNT(*) FROM customer_accounts WHERE username = ?";
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt(1) > 0;
+                    }
                 }
             }
-        }
-        return false;
+            return false;
+        });
     }
 
     public CustomerAccount validateCustomerAccount(String username, String password) throws SQLException {
-        String sql = "SELECT account_id, customer_id, username, password FROM customer_accounts WHERE username = ? AND password = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return new CustomerAccount(
-                            rs.getInt("account_id"),
-                            rs.getInt("customer_id"),
-                            rs.getString("username"),
-                            rs.getString("password")
-                    );
+        return metrics.time("validateCustomerAccount", () -> {
+            String sql = "SELECT account_id, customer_id, username, password FROM customer_accounts WHERE username = ? AND password = ?";
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, username);
+                pstmt.setString(2, password);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return new CustomerAccount(
+                                rs.getInt("account_id"),
+                                rs.getInt("customer_id"),
+                                rs.getString("username"),
+                                rs.getString("password")
+                        );
+                    }
                 }
             }
-        }
-        return null;
+            return null;
+        });
     }
 
     // --- Product Operations ---
     public int insertProduct(Product product) throws SQLException {
-        String sql = "INSERT INTO products (name, description, price, stock_quantity, image_url) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, product.getName());
-            pstmt.setString(2, product.getDescription());
-            pstmt.setBigDecimal(3, product.getPrice());
-            pstmt.setInt(4, product.getStockQuantity());
-            pstmt.setString(5, product.getImageUrl());
-            if (pstmt.executeUpdate() > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        return rs.getInt(1);
+        return metrics.time("insertProduct", () -> {
+            String sql = "INSERT INTO products (name, description, price, stock_quantity, image_url) VALUES (?, ?, ?, ?, ?)";
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, product.getName());
+                pstmt.setString(2, product.getDescription());
+                pstmt.setBigDecimal(3, product.getPrice());
+                pstmt.setInt(4, product.getStockQuantity());
+                pstmt.setString(5, product.getImageUrl());
+                if (pstmt.executeUpdate() > 0) {
+                    productCache.invalidateCatalog();
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            return rs.getInt(1);
+                        }
                     }
                 }
             }
-        }
-        return -1;
+            return -1;
+        });
     }
 
-    public List<Product> getAllProducts() throws SQLException {
-        List<Product> products = new ArrayList<>();
-        String sql = "SELECT product_id, name, description, price, stock_quantity, image_url FROM products";
-        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                products.add(new Product(
-                        rs.getInt("product_id"),
-                        rs.getString("name"),
-                        rs.getString("description"),
-                        rs.getBigDecimal("price"),
-                        rs.getInt("stock_quantity"),
-                        rs.getString("image_url")
-                ));
+    /**
+     * Inserts or updates many products in one transaction, sent as a single JDBC batch. A product with id 0
+     * is inserted under a new id; any other id is inserted or, if it exists, overwritten. Either every
+     * product is written or, if the batch throws, none is.
+     * @return The number of products written.
+     */
+    public int upsertProducts(List<Product> products) throws SQLException {
+        return metrics.time("upsertProducts", () -> {
+            String sql = "INSERT INTO products (product_id, name, description, price, stock_quantity, image_url) VALUES (?, ?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE name = VALUES(name), description = VALUES(description), price = VALUES(price), " +
+                    "stock_quantity = VALUES(stock_quantity), image_url = VALUES(image_url)";
+            List<Integer> updatedIds = new ArrayList<>();
+            try {
+                return inTransaction(conn -> {
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        for (Product product : products) {
+                            if (product.getProductId() == 0) {
+                                pstmt.setNull(1, Types.INTEGER); // AUTO_INCREMENT assigns the id
+                            } else {
+                                pstmt.setInt(1, product.getProductId());
+                                updatedIds.add(product.getProductId());
+                            }
+                            pstmt.setString(2, product.getName());
+                            pstmt.setString(3, product.getDescription());
+                            pstmt.setBigDecimal(4, product.getPrice());
+                            pstmt.setInt(5, product.getStockQuantity());
+                            pstmt.setString(6, product.getImageUrl());
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                    logStockChanges(conn, updatedIds); // new products are on no till's screen yet
+                    return products.size();
+                });
+            } finally {
+                productCache.invalidate(updatedIds);
             }
-        }
-        return products;
+        });
     }
 
-    public Product getProductById(int productId) throws SQLException {
-        String sql = "SELECT product_id, name, description, price, stock_quantity, image_url FROM products WHERE product_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, productId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return new Product(
+    /**
+     * Returns the whole catalog, from the product cache while its snapshot is fresh.
+     */
+    public List<Product> getAllProducts() throws SQLException {
+        return metrics.time("getAllProducts", () -> {
+            List<Product> cached = productCache.getAll();
+            if (cached != null) {
+                return cached;
+            }
+            long cacheVersion = productCache.version();
+            List<Product> products = new ArrayList<>();
+            String sql = "SELECT product_id, name, description, price, stock_quantity, image_url FROM products";
+            try (Connection conn = getReadConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    products.add(new Product(
                             rs.getInt("product_id"),
                             rs.getString("name"),
                             rs.getString("description"),
                             rs.getBigDecimal("price"),
                             rs.getInt("stock_quantity"),
                             rs.getString("image_url")
-                    );
+                    ));
                 }
             }
+            productCache.putCatalog(products, cacheVersion);
+            return products;
+        });
+    }
+
+    /**
+     * Keyset-paginated catalog read: returns up to {@code limit} products with an id greater than
+     * {@code afterProductId}, in id order. Pass 0 for the first page and the last id seen for the next one,
+     * so every page is a primary-key range scan no matter how deep the caller has scrolled.
+     * @param filter Optional search text, matched as in {@link #searchProducts}; null or blank means no filter.
+     */
+    public List<Product> getProductsPage(int afterProductId, int limit, String filter) throws SQLException {
+        return metrics.time("getProductsPage", () -> {
+            boolean filtered = filter != null && !filter.trim().isEmpty();
+            String fullTextQuery = filtered ? toFullTextQuery(filter) : null;
+            String sql = "SELECT product_id, name, description, price, stock_quantity, image_url FROM products WHERE product_id > ?"
+                    + (filtered ? " AND " + productSearchCondition(fullTextQuery) : "")
+                    + " ORDER BY product_id LIMIT ?";
+            List<Product> products = new ArrayList<>();
+            long cacheVersion = productCache.version();
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                pstmt.setInt(index++, afterProductId);
+                if (filtered) {
+                    pstmt.setString(index++, fullTextQuery != null ? fullTextQuery : escapeLike(filter.trim()) + "%");
+                }
+                pstmt.setInt(index, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        products.add(new Product(
+                                rs.getInt("product_id"),
+                                rs.getString("name"),
+                                rs.getString("description"),
+                                rs.getBigDecimal("price"),
+                                rs.getInt("stock_quantity"),
+                                rs.getString("image_url")
+                        ));
+                    }
+                }
+            }
+            productCache.putAll(products, cacheVersion); // shown products are the ones likely to be looked up next
+            return products;
+        });
+    }
+
+    /**
+     * Product search: every word of {@code query} must start a word of the product's name or description,
+     * e.g. "wire mou" finds "Wireless Mouse". Served by the FULLTEXT index; a query with a word too short for
+     * that index falls back to a prefix match on the whole name, served by the name index.
+     * Results are ordered by name and go into the product cache.
+     */
+    public List<Product> searchProducts(String query, int limit) throws SQLException {
+        return metrics.time("searchProducts", () -> {
+            String fullTextQuery = toFullTextQuery(query);
+            String sql = "SELECT product_id, name, description, price, stock_quantity, image_url FROM products WHERE "
+                    + productSearchCondition(fullTextQuery) + " ORDER BY name, product_id LIMIT ?";
+            List<Product> products = new ArrayList<>();
+            long cacheVersion = productCache.version();
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, fullTextQuery != null ? fullTextQuery : escapeLike(query.trim()) + "%");
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        products.add(new Product(
+                                rs.getInt("product_id"),
+                                rs.getString("name"),
+                                rs.getString("description"),
+                                rs.getBigDecimal("price"),
+                                rs.getInt("stock_quantity"),
+                                rs.getString("image_url")
+                        ));
+                    }
+                }
+            }
+            productCache.putAll(products, cacheVersion);
+            return products;
+        });
+    }
+
+    private static String productSearchCondition(String fullTextQuery) {
+        return fullTextQuery != null ? "MATCH(name, description) AGAINST (? IN BOOLEAN MODE)" : "name LIKE ? ESCAPE '!'";
+    }
+
+    /**
+     * Turns search text into a boolean-mode query requiring a prefix match of every word ("+wire* +mou*").
+     * Splitting on anything but letters and digits, like the FULLTEXT parser does, also drops the
+     * boolean-mode operators. Returns null when a word is shorter than the index's minimum token size.
+     */
+    private static String toFullTextQuery(String query) {
+        StringBuilder sb = new StringBuilder();
+        for (String word : query.trim().split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (word.length() < FULLTEXT_MIN_WORD_LENGTH) {
+                return null;
+            }
+            sb.append(sb.length() == 0 ? "+" : " +").append(word).append('*');
         }
-        return null;
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * Looks a product up in the product cache first, and reads it through from the database on a miss.
+     */
+    public Product getProductById(int productId) throws SQLException {
+        return metrics.time("getProductById", () -> {
+            Product cached = productCache.get(productId);
+            if (cached != null) {
+                return cached;
+            }
+            long cacheVersion = productCache.version();
+            String sql = "SELECT product_id, name, description, price, stock_quantity, image_url FROM products WHERE product_id = ?";
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, productId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        Product product = new Product(
+                                rs.getInt("product_id"),
+                                rs.getString("name"),
+                                rs.getString("description"),
+                                rs.getBigDecimal("price"),
+                                rs.getInt("stock_quantity"),
+                                rs.getString("image_url")
+                        );
+                        productCache.put(product, cacheVersion);
+                        return product;
+                    }
+                }
+            }
+            return null;
+        });
     }
 
     public boolean updateProduct(Product product) throws SQLException {
-        String sql = "UPDATE products SET name = ?, description = ?, price = ?, stock_quantity = ?, image_url = ? WHERE product_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, product.getName());
-            pstmt.setString(2, product.getDescription());
-            pstmt.setBigDecimal(3, product.getPrice());
-            pstmt.setInt(4, product.getStockQuantity());
-            pstmt.setString(5, product.getImageUrl());
-            pstmt.setInt(6, product.getProductId());
-            return pstmt.executeUpdate() > 0;
-        }
+        return metrics.time("updateProduct", () -> {
+            String sql = "UPDATE products SET name = ?, description = ?, price = ?, stock_quantity = ?, image_url = ? WHERE product_id = ?";
+            try {
+                return inTransaction(conn -> {
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        pstmt.setString(1, product.getName());
+                        pstmt.setString(2, product.getDescription());
+                        pstmt.setBigDecimal(3, product.getPrice());
+                        pstmt.setInt(4, product.getStockQuantity());
+                        pstmt.setString(5, product.getImageUrl());
+                        pstmt.setInt(6, product.getProductId());
+                        if (pstmt.executeUpdate() == 0) {
+                            return false;
+                        }
+                    }
+                    logStockChanges(conn, Collections.singletonList(product.getProductId()));
+                    return true;
+                });
+            } finally {
+                productCache.invalidate(product.getProductId());
+            }
+        });
     }
 
     public boolean deleteProduct(int productId) throws SQLException {
-        String sql = "DELETE FROM products WHERE product_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, productId);
-            return pstmt.executeUpdate() > 0;
+        return metrics.time("deleteProduct", () -> {
+            String sql = "DELETE FROM products WHERE product_id = ?";
+            try {
+                return inTransaction(conn -> {
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        pstmt.setInt(1, productId);
+                        if (pstmt.executeUpdate() == 0) {
+                            return false;
+                        }
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO stock_changes (product_id, stock_quantity) VALUES (?, NULL)")) {
+                        pstmt.setInt(1, productId);
+                        pstmt.executeUpdate();
+                    }
+                    return true;
+                });
+            } finally {
+                productCache.invalidate(productId);
+            }
+        });
+    }
+
+    // --- Stock Change Log ---
+    // stock_changes records each product's new stock in the transaction that changed it, for other tills to poll.
+
+    /**
+     * Appends the current stock of the given products to stock_changes, inside the caller's transaction.
+     * The caller must already have updated, and so locked, the product rows: that keeps each product's
+     * entries in the order their transactions commit.
+     */
+    private void logStockChanges(Connection conn, List<Integer> productIds) throws SQLException {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO stock_changes (product_id, stock_quantity) " +
+                "SELECT product_id, stock_quantity FROM products WHERE product_id IN (" + placeholders(productIds.size()) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < productIds.size(); i++) {
+                pstmt.setInt(i + 1, productIds.get(i));
+            }
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads the stock change log from {@code overlapMillis} before {@code since} on, in change id order.
+     * Runs on the primary, since a replica's lag could hide changes from the caller's high-water mark.
+     * @param since The newest changed_at the caller has seen, or null to read from {@code overlapMillis} ago.
+     */
+    public List<StockChange> getStockChangesSince(Timestamp since, long overlapMillis) throws SQLException {
+        return metrics.time("getStockChangesSince", () -> {
+            String sql = "SELECT change_id, product_id, stock_quantity, changed_at FROM stock_changes " +
+                    "WHERE changed_at >= TIMESTAMPADD(MICROSECOND, ?, COALESCE(?, NOW(3))) ORDER BY change_id";
+            List<StockChange> changes = new ArrayList<>();
+            // Not getConnection(): a poll is no write, so it must not hold this process's reads on the primary
+            try (Connection conn = borrowConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, -overlapMillis * 1000);
+                pstmt.setTimestamp(2, since);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int stock = rs.getInt("stock_quantity");
+                        changes.add(new StockChange(
+                                rs.getLong("change_id"),
+                                rs.getInt("product_id"),
+                                rs.wasNull() ? null : stock,
+                                rs.getTimestamp("changed_at")
+                        ));
+                    }
+                }
+            }
+            return changes;
+        });
+    }
+
+    /**
+     * Deletes log entries older than the retention period, in batches.
+     * @return The number deleted.
+     */
+    public int pruneStockChanges() throws SQLException {
+        return metrics.time("pruneStockChanges", () -> {
+            String sql = "DELETE FROM stock_changes WHERE changed_at < NOW(3) - INTERVAL ? HOUR LIMIT ?";
+            int pruned = 0;
+            int deleted;
+            try (Connection conn = borrowConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                do {
+                    pstmt.setInt(1, STOCK_CHANGE_RETENTION_HOURS);
+                    pstmt.setInt(2, STOCK_CHANGE_PRUNE_BATCH_SIZE);
+                    deleted = pstmt.executeUpdate();
+                    pruned += deleted;
+                } while (deleted == STOCK_CHANGE_PRUNE_BATCH_SIZE);
+            }
+            return pruned;
+        });
+    }
+
+    private void sweepStockChanges() {
+        try {
+            int pruned = pruneStockChanges();
+            if (pruned > 0) {
+                System.out.println("DatabaseManager: Pruned " + pruned + " old stock change log entries.");
+            }
+        } catch (SQLException e) {
+            System.err.println("DatabaseManager: Failed to prune the stock change log: " + e.getMessage());
         }
     }
 
     // --- Order Operations ---
+
+    /**
+     * Places an order as one all-or-nothing transaction.
+     * The order items and stock decrements are sent as two JDBC batches, so the round trips no longer grow
+     * with the cart size, and product rows stay locked only from the stock update to the commit.
+     */
     public int createOrder(int customerId, Map<Integer, Integer> cartItems, BigDecimal totalAmount, String paymentMethod) throws SQLException {
-        connection.setAutoCommit(false);
-        int orderId = -1;
-        try {
-            String orderSql = "INSERT INTO orders (customer_id, total_amount, status, payment_method) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pstmt = connection.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS)) {
-                pstmt.setInt(1, customerId);
-                pstmt.setBigDecimal(2, totalAmount);
-                pstmt.setString(3, "Pending");
-                pstmt.setString(4, paymentMethod);
-                pstmt.executeUpdate();
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        orderId = rs.getInt(1);
-                    } else {
-                        throw new SQLException("Creating order failed, no ID obtained.");
+        return metrics.time("createOrder", () -> {
+            return createOrder(customerId, cartItems, totalAmount, paymentMethod, Collections.emptyMap());
+        });
+    }
+
+    /**
+     * Places an order that consumes the stock reservations its cart holds.
+     * @param reservationIds Product ID -> reservation from {@link #reserveStock}; reservations that have expired are ignored.
+     */
+    public int createOrder(int customerId, Map<Integer, Integer> cartItems, BigDecimal totalAmount, String paymentMethod,
+                           Map<Integer, Integer> reservationIds) throws SQLException {
+        return metrics.time("createOrder", () -> {
+            if (cartItems.isEmpty()) {
+                throw new SQLException("Cannot create an order without items.");
+            }
+            int orderId = inTransaction(conn -> insertOrder(conn, customerId, cartItems, totalAmount, paymentMethod, reservationIds));
+            productCache.invalidate(cartItems.keySet()); // their stock just changed
+            return orderId;
+        });
+    }
+
+    /**
+     * One checkout for {@link #createOrders}, with the same arguments as {@link #createOrder}.
+     */
+    static class OrderRequest {
+        private final int customerId;
+        private final Map<Integer, Integer> cartItems;
+        private final BigDecimal totalAmount;
+        private final String paymentMethod;
+        private final Map<Integer, Integer> reservationIds;
+
+        public OrderRequest(int customerId, Map<Integer, Integer> cartItems, BigDecimal totalAmount, String paymentMethod,
+                            Map<Integer, Integer> reservationIds) {
+            this.customerId = customerId;
+            this.cartItems = cartItems;
+            this.totalAmount = totalAmount;
+            this.paymentMethod = paymentMethod;
+            this.reservationIds = reservationIds;
+        }
+
+        public int getCustomerId() { return customerId; }
+        public Map<Integer, Integer> getCartItems() { return cartItems; }
+        public BigDecimal getTotalAmount() { return totalAmount; }
+        public String getPaymentMethod() { return paymentMethod; }
+        public Map<Integer, Integer> getReservationIds() { return reservationIds; }
+    }
+
+    /**
+     * What became of one order of a {@link #createOrders} call: its new id, or why it was rejected.
+     */
+    static class OrderResult {
+        private final int orderId;
+        private final SQLException failure;
+
+        private OrderResult(int orderId, SQLException failure) {
+            this.orderId = orderId;
+            this.failure = failure;
+        }
+
+        public boolean isPlaced() { return failure == null; }
+        public int getOrderId() { return orderId; }
+        public SQLException getFailure() { return failure; }
+    }
+
+    /**
+     * Places several orders in one transaction, so the server flushes its log once for all of them.
+     * Each order runs behind its own savepoint: one that fails, e.g. for lack of stock, is rolled back alone
+     * and the others still commit. Orders are written in list order, so earlier ones get the stock first.
+     * @return One result per order, in list order.
+     * @throws SQLException If the transaction as a whole failed (a deadlock or a lost connection); no order was placed.
+     */
+    public List<OrderResult> createOrders(List<OrderRequest> orders) throws SQLException {
+        return metrics.time("createOrders", () -> {
+            List<Integer> changedProducts = new ArrayList<>();
+            try {
+                return inTransaction(conn -> {
+                    List<OrderResult> results = new ArrayList<>(orders.size());
+                    for (OrderRequest order : orders) {
+                        if (order.getCartItems().isEmpty()) {
+                            results.add(new OrderResult(-1, new SQLException("Cannot create an order without items.")));
+                            continue;
+                        }
+                        Savepoint savepoint = conn.setSavepoint();
+                        try {
+                            int orderId = insertOrder(conn, order.getCustomerId(), order.getCartItems(), order.getTotalAmount(),
+                                    order.getPaymentMethod(), order.getReservationIds());
+                            conn.releaseSavepoint(savepoint);
+                            changedProducts.addAll(order.getCartItems().keySet());
+                            results.add(new OrderResult(orderId, null));
+                        } catch (SQLException e) {
+                            if (abortsTransaction(e)) {
+                                throw e; // the server has already rolled back every order of the batch
+                            }
+                            conn.rollback(savepoint);
+                            results.add(new OrderResult(-1, e));
+                        }
                     }
+                    return results;
+                });
+            } finally {
+                productCache.invalidate(changedProducts);
+            }
+        });
+    }
+
+    /**
+     * True for errors after which MySQL has rolled back the whole transaction, savepoints included:
+     * a deadlock, or a broken connection.
+     */
+    private static boolean abortsTransaction(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.equals("40001") || state.startsWith("08"));
+    }
+
+    /**
+     * Writes one order inside the caller's transaction. Every statement is prepared once per call.
+     * Stock is checked and taken by a single guarded UPDATE per product, so no product row is read and locked
+     * ahead of it; the updates run in product id order, which gives every checkout the same lock order and
+     * keeps concurrent tills from deadlocking. The order header is inserted first because it locks no product.
+     */
+    private int insertOrder(Connection conn, int customerId, Map<Integer, Integer> cartItems, BigDecimal totalAmount,
+                            String paymentMethod, Map<Integer, Integer> reservationIds) throws SQLException {
+        List<Integer> productIds = new ArrayList<>(new TreeSet<>(cartItems.keySet()));
+
+        int orderId;
+        String orderSql = "INSERT INTO orders (customer_id, total_amount, status, payment_method) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, customerId);
+            pstmt.setBigDecimal(2, totalAmount);
+            pstmt.setString(3, "Pending");
+            pstmt.setString(4, paymentMethod);
+            pstmt.executeUpdate();
+            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    orderId = rs.getInt(1);
+                } else {
+                    throw new SQLException("Creating order failed, no ID obtained.");
                 }
             }
+        }
 
-            String itemSql = "INSERT INTO order_items (order_id, product_id, quantity, price_at_purchase) VALUES (?, ?, ?, ?)";
-            String updateStockSql = "UPDATE products SET stock_quantity = stock_quantity - ? WHERE product_id = ? AND stock_quantity >= ?";
+        // What this cart still holds in reservations counts as available to it, and stops being reserved
+        Map<Integer, Integer> reserved = consumeReservations(conn, reservationIds);
+        String updateStockSql = "UPDATE products SET stock_quantity = stock_quantity - ?, reserved_quantity = reserved_quantity - ? " +
+                "WHERE product_id = ? AND stock_quantity - reserved_quantity + ? >= ?";
+        try (PreparedStatement stockPstmt = conn.prepareStatement(updateStockSql)) {
+            for (int productId : productIds) {
+                int quantity = cartItems.get(productId);
+                int held = reserved.getOrDefault(productId, 0);
+                stockPstmt.setInt(1, quantity);
+                stockPstmt.setInt(2, held);
+                stockPstmt.setInt(3, productId);
+                stockPstmt.setInt(4, held);
+                stockPstmt.setInt(5, quantity);
+                stockPstmt.addBatch();
+            }
+            int[] updateCounts = stockPstmt.executeBatch();
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == 0) {
+                    throw stockFailure(conn, productIds.get(i));
+                }
+            }
+        }
+        logStockChanges(conn, productIds);
 
-            for (Map.Entry<Integer, Integer> entry : cartItems.entrySet()) {
-                Product product = getProductById(entry.getKey());
-                if (product.getStockQuantity() < entry.getValue()) {
-                    throw new SQLException("Insufficient stock for " + product.getName());
+        // The product rows are locked by the updates above, so these prices cannot change before the commit
+        Map<Integer, BigDecimal> prices = readPrices(conn, productIds);
+        String itemSql = "INSERT INTO order_items (order_id, product_id, quantity, price_at_purchase) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement itemPstmt = conn.prepareStatement(itemSql)) {
+            for (int productId : productIds) {
+                itemPstmt.setInt(1, orderId);
+                itemPstmt.setInt(2, productId);
+                itemPstmt.setInt(3, cartItems.get(productId));
+                itemPstmt.setBigDecimal(4, prices.get(productId));
+                itemPstmt.addBatch();
+            }
+            itemPstmt.executeBatch();
+        }
+        applyToSalesSummaries(conn, orderId, 1);
+        return orderId;
+    }
+
+    /**
+     * Explains why a guarded stock update matched no row.
+     */
+    private SQLException stockFailure(Connection conn, int productId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT name FROM products WHERE product_id = ?")) {
+            pstmt.setInt(1, productId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new SQLException("Insufficient stock for " + rs.getString("name"))
+                        : new SQLException("Product ID " + productId + " no longer exists.");
+            }
+        }
+    }
+
+    private Map<Integer, BigDecimal> readPrices(Connection conn, List<Integer> productIds) throws SQLException {
+        String sql = "SELECT product_id, price FROM products WHERE product_id IN (" + placeholders(productIds.size()) + ")";
+        Map<Integer, BigDecimal> prices = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < productIds.size(); i++) {
+                pstmt.setInt(i + 1, productIds.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    prices.put(rs.getInt("product_id"), rs.getBigDecimal("price"));
                 }
-                try (PreparedStatement itemPstmt = connection.prepareStatement(itemSql)) {
-                    itemPstmt.setInt(1, orderId);
-                    itemPstmt.setInt(2, entry.getKey());
-                    itemPstmt.setInt(3, entry.getValue());
-                    itemPstmt.setBigDecimal(4, product.getPrice());
-                    itemPstmt.executeUpdate();
+            }
+        }
+        return prices;
+    }
+
+    // --- Stock Reservations ---
+    // A reservation holds stock for a cart: it counts in products.reserved_quantity, and the stock others can
+    // take is stock_quantity - reserved_quantity. A reservation row is always locked before its product row,
+    // by checkouts, releases and the sweeper alike, so whichever removes it first is the only one to un-reserve it.
+
+    /**
+     * Reserves {@code quantity} of a product for a cart, replacing the cart's previous reservation for that
+     * product. The availability check and the claim are one guarded UPDATE. The reservation expires after
+     * {@code store.reservationTtlSeconds} (15 minutes by default) unless an order consumes it first.
+     * @param previousReservationId The cart's current reservation for this product, or null.
+     * @return The new reservation id, or -1 if not enough unreserved stock is left; the previous reservation is then kept.
+     */
+    public int reserveStock(Integer previousReservationId, int productId, int quantity) throws SQLException {
+        return metrics.time("reserveStock", () -> {
+            return inTransaction(conn -> {
+                if (previousReservationId != null) {
+                    releaseReservation(conn, previousReservationId, false);
+                }
+                String claimSql = "UPDATE products SET reserved_quantity = reserved_quantity + ? WHERE product_id = ? AND stock_quantity - reserved_quantity >= ?";
+                try (PreparedStatement pstmt = conn.prepareStatement(claimSql)) {
+                    pstmt.setInt(1, quantity);
+                    pstmt.setInt(2, productId);
+                    pstmt.setInt(3, quantity);
+                    if (pstmt.executeUpdate() == 0) {
+                        conn.rollback(); // keeps the previous reservation
+                        return -1;
+                    }
                 }
-                try (PreparedStatement stockPstmt = connection.prepareStatement(updateStockSql)) {
-                    stockPstmt.setInt(1, entry.getValue());
-                    stockPstmt.setInt(2, entry.getKey());
-                    stockPstmt.setInt(3, entry.getValue());
-                    if (stockPstmt.executeUpdate() == 0) {
-                        throw new SQLException("Failed to update stock for " + product.getName());
+                String insertSql = "INSERT INTO stock_reservations (product_id, quantity, expires_at) VALUES (?, ?, DATE_ADD(NOW(3), INTERVAL ? SECOND))";
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, productId);
+                    pstmt.setInt(2, quantity);
+                    pstmt.setInt(3, reservationTtlSeconds);
+                    pstmt.executeUpdate();
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            return rs.getInt(1);
+                        }
+                    }
+                }
+                throw new SQLException("Creating stock reservation failed, no ID obtained.");
+            });
+        });
+    }
+
+    /**
+     * Gives a reservation's stock back, e.g. when the item leaves the cart.
+     * @return false if the reservation had already expired or been used.
+     */
+    public boolean releaseReservation(int reservationId) throws SQLException {
+        return metrics.time("releaseReservation", () -> {
+            return inTransaction(conn -> releaseReservation(conn, reservationId, false) > 0);
+        });
+    }
+
+    /**
+     * Releases reservations past their expiry, each in its own short transaction.
+     * @return The number released.
+     */
+    public int releaseExpiredReservations() throws SQLException {
+        return metrics.time("releaseExpiredReservations", () -> {
+            List<Integer> expired = new ArrayList<>();
+            String sql = "SELECT reservation_id FROM stock_reservations WHERE expires_at < NOW(3) ORDER BY expires_at LIMIT ?";
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, RESERVATION_SWEEP_BATCH_SIZE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        expired.add(rs.getInt("reservation_id"));
                     }
                 }
             }
-            connection.commit();
-            return orderId;
+            int released = 0;
+            for (int reservationId : expired) {
+                // Re-checks the expiry under the row lock, in case it was consumed or replaced since the scan
+                if (inTransaction(conn -> releaseReservation(conn, reservationId, true)) > 0) {
+                    released++;
+                }
+            }
+            return released;
+        });
+    }
+
+    private void sweepExpiredReservations() {
+        try {
+            int released;
+            do {
+                released = releaseExpiredReservations();
+                if (released > 0) {
+                    System.out.println("DatabaseManager: Released " + released + " expired stock reservation(s).");
+                }
+            } while (released == RESERVATION_SWEEP_BATCH_SIZE);
         } catch (SQLException e) {
-            connection.rollback();
-            throw e;
-        } finally {
-            connection.setAutoCommit(true);
+            System.err.println("DatabaseManager: Failed to release expired stock reservations: " + e.getMessage());
         }
     }
 
-    public List<Order> getAllOrders() throws SQLException {
-        List<Order> orders = new ArrayList<>();
-        String sql = "SELECT o.order_id, o.customer_id, o.order_date, o.total_amount, o.status, o.payment_method, c.name AS customer_name " +
-                "FROM orders o JOIN customers c ON o.customer_id = c.customer_id ORDER BY o.order_date DESC";
-        String itemSql = "SELECT oi.order_item_id, oi.order_id, oi.product_id, oi.quantity, oi.price_at_purchase, p.name AS product_name " +
-                "FROM order_items oi JOIN products p ON oi.product_id = p.product_id WHERE oi.order_id = ?";
-
-        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                int orderId = rs.getInt("order_id");
-                Order order = new Order(orderId, rs.getInt("customer_id"), rs.getTimestamp("order_date"), rs.getBigDecimal("total_amount"), rs.getString("status"), rs.getString("payment_method"));
-                try (PreparedStatement itemPstmt = connection.prepareStatement(itemSql)) {
-                    itemPstmt.setInt(1, orderId);
-                    try (ResultSet itemRs = itemPstmt.executeQuery()) {
-                        while (itemRs.next()) {
-                            order.addOrderItem(new OrderItem(itemRs.getInt("order_item_id"), itemRs.getInt("order_id"), itemRs.getInt("product_id"), itemRs.getString("product_name"), itemRs.getInt("quantity"), itemRs.getBigDecimal("price_at_purchase")));
-                        }
+    /**
+     * Deletes a reservation and un-reserves its stock, inside the caller's transaction.
+     * @return The quantity released, or 0 if the reservation is gone (or, with {@code onlyIfExpired}, still valid).
+     */
+    private int releaseReservation(Connection conn, int reservationId, boolean onlyIfExpired) throws SQLException {
+        String selectSql = "SELECT product_id, quantity FROM stock_reservations WHERE reservation_id = ?"
+                + (onlyIfExpired ? " AND expires_at < NOW(3)" : "") + " FOR UPDATE";
+        int productId;
+        int quantity;
+        try (PreparedStatement pstmt = conn.prepareStatement(selectSql)) {
+            pstmt.setInt(1, reservationId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return 0;
+                }
+                productId = rs.getInt("product_id");
+                quantity = rs.getInt("quantity");
+            }
+        }
+        try (PreparedStatement delete = conn.prepareStatement("DELETE FROM stock_reservations WHERE reservation_id = ?");
+             PreparedStatement unreserve = conn.prepareStatement("UPDATE products SET reserved_quantity = reserved_quantity - ? WHERE product_id = ?")) {
+            delete.setInt(1, reservationId);
+            delete.executeUpdate();
+            unreserve.setInt(1, quantity);
+            unreserve.setInt(2, productId);
+            unreserve.executeUpdate();
+        }
+        return quantity;
+    }
+
+    /**
+     * Deletes the reservations an order uses, locking them first.
+     * @return Product ID -> quantity they held. A reservation that expired, or is not for the product it is
+     *         listed under, contributes nothing.
+     */
+    private Map<Integer, Integer> consumeReservations(Connection conn, Map<Integer, Integer> reservationIds) throws SQLException {
+        Map<Integer, Integer> held = new HashMap<>();
+        if (reservationIds.isEmpty()) {
+            return held;
+        }
+        List<Integer> ids = new ArrayList<>(new TreeSet<>(reservationIds.values()));
+        List<Integer> found = new ArrayList<>();
+        String sql = "SELECT reservation_id, product_id, quantity FROM stock_reservations WHERE reservation_id IN ("
+                + placeholders(ids.size()) + ") FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                pstmt.setInt(i + 1, ids.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int reservationId = rs.getInt("reservation_id");
+                    int productId = rs.getInt("product_id");
+                    if (Integer.valueOf(reservationId).equals(reservationIds.get(productId))) {
+                        held.put(productId, rs.getInt("quantity"));
+                        found.add(reservationId);
                     }
                 }
-                orders.add(order);
             }
         }
-        return orders;
+        if (!found.isEmpty()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "DELETE FROM stock_reservations WHERE reservation_id IN (" + placeholders(found.size()) + ")")) {
+                for (int i = 0; i < found.size(); i++) {
+                    pstmt.setInt(i + 1, found.get(i));
+                }
+                pstmt.executeUpdate();
+            }
+        }
+        return held;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+
+    // Orders and their items in one pass. The nested join keeps orders without items, and ordering by
+    // order_id after order_date keeps every order's rows contiguous so the graph can be built while streaming.
+    private static final String ORDER_GRAPH_SELECT =
+            "SELECT o.order_id, o.customer_id, o.order_date, o.total_amount, o.status, o.payment_method, o.updated_at, " +
+            "oi.order_item_id, oi.product_id, oi.quantity, oi.price_at_purchase, p.name AS product_name " +
+            "FROM orders o " +
+            "LEFT JOIN (order_items oi JOIN products p ON oi.product_id = p.product_id) ON oi.order_id = o.order_id ";
+    private static final String ORDER_GRAPH_ORDER_BY = " ORDER BY o.order_date DESC, o.order_id DESC, oi.order_item_id";
+
+    public List<Order> getAllOrders() throws SQLException {
+        return metrics.time("getAllOrders", () -> {
+            String sql = ORDER_GRAPH_SELECT + "JOIN customers c ON o.customer_id = c.customer_id" + ORDER_GRAPH_ORDER_BY;
+            try (Connection conn = getReadConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+                return readOrderGraphs(rs);
+            }
+        });
     }
 
     public List<Order> getOrdersByCustomerId(int customerId) throws SQLException {
-        List<Order> orders = new ArrayList<>();
-        String orderSql = "SELECT o.order_id, o.customer_id, o.order_date, o.total_amount, o.status, o.payment_method " +
-                "FROM orders o WHERE o.customer_id = ? ORDER BY o.order_date DESC";
+        return metrics.time("getOrdersByCustomerId", () -> {
+            String sql = ORDER_GRAPH_SELECT + "WHERE o.customer_id = ?" + ORDER_GRAPH_ORDER_BY;
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, customerId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return readOrderGraphs(rs);
+                }
+            }
+        });
+    }
 
-        String itemSql = "SELECT oi.order_item_id, oi.order_id, oi.product_id, oi.quantity, oi.price_at_purchase, p.name AS product_name " +
-                "FROM order_items oi JOIN products p ON oi.product_id = p.product_id WHERE oi.order_id = ?";
+    /**
+     * Returns the orders created or changed after {@code since}, by their updated_at column, newest first.
+     * Lets a caller that already holds the order list patch it instead of reloading the whole history;
+     * the updated_at index keeps the cost proportional to the number of changes.
+     */
+    public List<Order> getOrdersChangedSince(Timestamp since) throws SQLException {
+        return metrics.time("getOrdersChangedSince", () -> {
+            String sql = ORDER_GRAPH_SELECT + "WHERE o.updated_at > ?" + ORDER_GRAPH_ORDER_BY;
+            try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setTimestamp(1, since);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return readOrderGraphs(rs);
+                }
+            }
+        });
+    }
 
-        try (PreparedStatement orderPstmt = connection.prepareStatement(orderSql)) {
-            orderPstmt.setInt(1, customerId);
-            try (ResultSet rs = orderPstmt.executeQuery()) {
-                while (rs.next()) {
-                    int orderId = rs.getInt("order_id");
-                    Order order = new Order(
-                            orderId,
-                            rs.getInt("customer_id"),
-                            rs.getTimestamp("order_date"),
-                            rs.getBigDecimal("total_amount"),
-                            rs.getString("status"),
-                            rs.getString("payment_method")
-                    );
-
-                    try (PreparedStatement itemPstmt = connection.prepareStatement(itemSql)) {
-                        itemPstmt.setInt(1, orderId);
-                        try (ResultSet itemRs = itemPstmt.executeQuery()) {
-                            while (itemRs.next()) {
-                                order.addOrderItem(new OrderItem(
-                                        itemRs.getInt("order_item_id"),
-                                        itemRs.getInt("order_id"),
-                                        itemRs.getInt("product_id"),
-                                        itemRs.getString("product_name"),
-                                        itemRs.getInt("quantity"),
-                                        itemRs.getBigDecimal("price_at_purchase")
-                                ));
+    /**
+     * Orders matching every given criterion, newest first; null criteria are ignored.
+     * A customer or status filter with a date range is served by the (customer_id, order_date)
+     * or (status, order_date) index, a date range alone by the order_date index.
+     * @param from Earliest order date, inclusive.
+     * @param to Latest order date, exclusive.
+     */
+    public List<Order> findOrders(Integer customerId, String status, Timestamp from, Timestamp to) throws SQLException {
+        return metrics.time("findOrders", () -> {
+            List<String> conditions = new ArrayList<>();
+            List<Object> values = new ArrayList<>();
+            if (customerId != null) { conditions.add("o.customer_id = ?"); values.add(customerId); }
+            if (status != null) { conditions.add("o.status = ?"); values.add(status); }
+            if (from != null) { conditions.add("o.order_date >= ?"); values.add(from); }
+            if (to != null) { conditions.add("o.order_date < ?"); values.add(to); }
+            String sql = ORDER_GRAPH_SELECT + (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions)) + ORDER_GRAPH_ORDER_BY;
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < values.size(); i++) {
+                    pstmt.setObject(i + 1, values.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return readOrderGraphs(rs);
+                }
+            }
+        });
+    }
+
+    public Order getOrderById(int orderId) throws SQLException {
+        return metrics.time("getOrderById", () -> {
+            String sql = ORDER_GRAPH_SELECT + "WHERE o.order_id = ?" + ORDER_GRAPH_ORDER_BY;
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, orderId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    List<Order> orders = readOrderGraphs(rs);
+                    return orders.isEmpty() ? null : orders.get(0);
+                }
+            }
+        });
+    }
+
+    /**
+     * Streams every order, with its items and its customer, to {@code sink} one order at a time.
+     * The rows come through a forward-only MySQL streaming cursor, so memory stays flat no matter
+     * how large the order history is. The sink runs on the calling thread while the cursor is open
+     * and must not use this DatabaseManager's connection for anything else.
+     * @return The number of orders passed to the sink.
+     */
+    public int streamOrdersWithCustomers(BiConsumer<Order, Customer> sink) throws SQLException {
+        return metrics.time("streamOrdersWithCustomers", () -> {
+            String sql = "SELECT o.order_id, o.customer_id, o.order_date, o.total_amount, o.status, o.payment_method, " +
+                    "c.name AS customer_name, c.email, c.phone_number, c.address, " +
+                    "oi.order_item_id, oi.product_id, oi.quantity, oi.price_at_purchase, p.name AS product_name " +
+                    "FROM orders o JOIN customers c ON o.customer_id = c.customer_id " +
+                    "LEFT JOIN (order_items oi JOIN products p ON oi.product_id = p.product_id) ON oi.order_id = o.order_id " +
+                    "ORDER BY o.order_id, oi.order_item_id";
+            int count = 0;
+            try (Connection conn = getReadConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream rows instead of buffering the whole result
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Order current = null;
+                    Customer currentCustomer = null;
+                    while (rs.next()) {
+                        int orderId = rs.getInt("order_id");
+                        if (current == null || current.getOrderId() != orderId) {
+                            if (current != null) {
+                                sink.accept(current, currentCustomer);
+                                count++;
+                            }
+                            current = new Order(
+                                    orderId,
+                                    rs.getInt("customer_id"),
+                                    rs.getTimestamp("order_date"),
+                                    rs.getBigDecimal("total_amount"),
+                                    rs.getString("status"),
+                                    rs.getString("payment_method")
+                            );
+                            if (currentCustomer == null || currentCustomer.getCustomerId() != current.getCustomerId()) {
+                                currentCustomer = new Customer(
+                                        current.getCustomerId(),
+                                        rs.getString("customer_name"),
+                                        rs.getString("email"),
+                                        rs.getString("phone_number"),
+                                        rs.getString("address")
+                                );
                             }
                         }
+                        int orderItemId = rs.getInt("order_item_id");
+                        if (!rs.wasNull()) {
+                            current.addOrderItem(new OrderItem(
+                                    orderItemId,
+                                    orderId,
+                                    rs.getInt("product_id"),
+                                    rs.getString("product_name"),
+                                    rs.getInt("quantity"),
+                                    rs.getBigDecimal("price_at_purchase")
+                            ));
+                        }
+                    }
+                    if (current != null) {
+                        sink.accept(current, currentCustomer);
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Receives the rows of a streamed export, on the thread that started it, while the cursor is open.
+     * The values array is reused for every row, so a sink must copy anything it wants to keep.
+     */
+    interface RowSink {
+        void columns(String[] names);
+        void row(Object[] values);
+    }
+
+    /**
+     * Streams one flat row per order line (orders without items get one row with empty item columns),
+     * with the customer's name and email, ordered by order id. For exports: nothing is built per order.
+     * @return The number of rows passed to the sink.
+     */
+    public long streamOrderLines(RowSink sink) throws SQLException {
+        return metrics.time("streamOrderLines", () -> {
+            String sql = "SELECT o.order_id, o.order_date, o.customer_id, c.name AS customer_name, c.email AS customer_email, " +
+                    "o.status, o.payment_method, o.total_amount, " +
+                    "oi.order_item_id, oi.product_id, p.name AS product_name, oi.quantity, oi.price_at_purchase " +
+                    "FROM orders o JOIN customers c ON o.customer_id = c.customer_id " +
+                    "LEFT JOIN (order_items oi JOIN products p ON oi.product_id = p.product_id) ON oi.order_id = o.order_id " +
+                    "ORDER BY o.order_id, oi.order_item_id";
+            return streamRows(sql, sink);
+        });
+    }
+
+    /**
+     * Streams every product, ordered by product id.
+     * @return The number of rows passed to the sink.
+     */
+    public long streamProducts(RowSink sink) throws SQLException {
+        return metrics.time("streamProducts", () -> {
+            String sql = "SELECT product_id, name, description, price, stock_quantity, reserved_quantity, image_url " +
+                    "FROM products ORDER BY product_id";
+            return streamRows(sql, sink);
+        });
+    }
+
+    /**
+     * Runs {@code sql} through a forward-only streaming cursor and hands each row to the sink as it arrives,
+     * so memory stays flat however many rows there are. The connection is busy until the last row is read.
+     */
+    private long streamRows(String sql, RowSink sink) throws SQLException {
+        long count = 0;
+        try (Connection conn = getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream rows instead of buffering the whole result
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                String[] names = new String[meta.getColumnCount()];
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = meta.getColumnLabel(i + 1);
+                }
+                sink.columns(names);
+                Object[] values = new Object[names.length];
+                while (rs.next()) {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getObject(i + 1);
                     }
-                    orders.add(order);
+                    sink.row(values);
+                    count++;
                 }
             }
         }
+        return count;
+    }
+
+    /**
+     * Builds Order/OrderItem graphs from rows produced by ORDER_GRAPH_SELECT.
+     * Rows of one order must be adjacent; a new Order is started whenever the order_id changes.
+     */
+    private List<Order> readOrderGraphs(ResultSet rs) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        Order current = null;
+        while (rs.next()) {
+            int orderId = rs.getInt("order_id");
+            if (current == null || current.getOrderId() != orderId) {
+                current = new Order(
+                        orderId,
+                        rs.getInt("customer_id"),
+                        rs.getTimestamp("order_date"),
+                        rs.getBigDecimal("total_amount"),
+                        rs.getString("status"),
+                        rs.getString("payment_method")
+                );
+                current.setUpdatedAt(rs.getTimestamp("updated_at"));
+                orders.add(current);
+            }
+            int orderItemId = rs.getInt("order_item_id");
+            if (!rs.wasNull()) {
+                current.addOrderItem(new OrderItem(
+                        orderItemId,
+                        orderId,
+                        rs.getInt("product_id"),
+                        rs.getString("product_name"),
+                        rs.getInt("quantity"),
+                        rs.getBigDecimal("price_at_purchase")
+                ));
+            }
+        }
         return orders;
     }
 
+    /**
+     * Changes an order's status. Cancelling an order takes it out of the sales summaries and un-cancelling it
+     * puts it back, in the same transaction as the status change.
+     */
+    public boolean updateOrderStatus(int orderId, String newStatus) throws SQLException {
+        return metrics.time("updateOrderStatus", () -> {
+            return inTransaction(conn -> {
+                String oldStatus;
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT status FROM orders WHERE order_id = ? FOR UPDATE")) {
+                    pstmt.setInt(1, orderId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        oldStatus = rs.getString("status");
+                    }
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement("UPDATE orders SET status = ? WHERE order_id = ?")) {
+                    pstmt.setString(1, newStatus);
+                    pstmt.setInt(2, orderId);
+                    pstmt.executeUpdate();
+                }
+                boolean wasSale = countsAsSale(oldStatus);
+                if (wasSale != countsAsSale(newStatus)) {
+                    lockOrderProducts(conn, orderId);
+                    applyToSalesSummaries(conn, orderId, wasSale ? -1 : 1);
+                }
+                return true;
+            });
+        });
+    }
 
-    public Order getOrderById(int orderId) throws SQLException {
-        Order order = null;
-        String sql = "SELECT * FROM orders WHERE order_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+    // --- Sales Summaries ---
+    // daily_sales and product_sales hold running totals of every order that is not cancelled, so reports read
+    // a row per day (or per product and day) however many orders there are. Writers change product_sales while
+    // holding the locks on its products' rows and change a single daily_sales row last, which keeps checkouts
+    // and cancellations from deadlocking on the summaries.
+
+    private static boolean countsAsSale(String status) {
+        return !"Cancelled".equalsIgnoreCase(status);
+    }
+
+    /**
+     * Locks the product rows of an order in product id order, the order checkouts lock them in.
+     */
+    private void lockOrderProducts(Connection conn, int orderId) throws SQLException {
+        String sql = "SELECT product_id FROM products WHERE product_id IN " +
+                "(SELECT product_id FROM order_items WHERE order_id = ?) ORDER BY product_id FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, orderId);
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    order = new Order(rs.getInt("order_id"), rs.getInt("customer_id"), rs.getTimestamp("order_date"), rs.getBigDecimal("total_amount"), rs.getString("status"), rs.getString("payment_method"));
-                    String itemSql = "SELECT oi.order_item_id, oi.order_id, oi.product_id, oi.quantity, oi.price_at_purchase, p.name AS product_name " +
-                            "FROM order_items oi JOIN products p ON oi.product_id = p.product_id WHERE oi.order_id = ?";
-                    try (PreparedStatement itemPstmt = connection.prepareStatement(itemSql)) {
-                        itemPstmt.setInt(1, orderId);
-                        try (ResultSet itemRs = itemPstmt.executeQuery()) {
-                            while (itemRs.next()) {
-                                order.addOrderItem(new OrderItem(itemRs.getInt("order_item_id"), itemRs.getInt("order_id"), itemRs.getInt("product_id"), itemRs.getString("product_name"), itemRs.getInt("quantity"), itemRs.getBigDecimal("price_at_purchase")));
-                            }
-                        }
-                    }
+                while (rs.next()) {
+                    // only the locks are wanted
                 }
             }
         }
-        return order;
     }
 
-    public boolean updateOrderStatus(int orderId, String newStatus) throws SQLException {
-        String sql = "UPDATE orders SET status = ? WHERE order_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, newStatus);
-            pstmt.setInt(2, orderId);
-            return pstmt.executeUpdate() > 0;
+    /**
+     * Adds one order to the summaries ({@code sign} 1) or subtracts it ({@code sign} -1), inside the caller's transaction.
+     */
+    private void applyToSalesSummaries(Connection conn, int orderId, int sign) throws SQLException {
+        String productSql = "INSERT INTO product_sales (sale_date, product_id, quantity_sold, revenue) " +
+                "SELECT * FROM (SELECT DATE(o.order_date) AS sale_date, oi.product_id, ? * SUM(oi.quantity) AS quantity_sold, " +
+                "? * SUM(oi.quantity * oi.price_at_purchase) AS revenue " +
+                "FROM orders o JOIN order_items oi ON oi.order_id = o.order_id WHERE o.order_id = ? " +
+                "GROUP BY DATE(o.order_date), oi.product_id) AS d " +
+                "ON DUPLICATE KEY UPDATE quantity_sold = product_sales.quantity_sold + d.quantity_sold, " +
+                "revenue = product_sales.revenue + d.revenue";
+        try (PreparedStatement pstmt = conn.prepareStatement(productSql)) {
+            pstmt.setInt(1, sign);
+            pstmt.setInt(2, sign);
+            pstmt.setInt(3, orderId);
+            pstmt.executeUpdate();
         }
+        String dailySql = "INSERT INTO daily_sales (sale_date, bucket, order_count, items_sold, revenue) " +
+                "SELECT * FROM (SELECT DATE(o.order_date) AS sale_date, o.order_id % ? AS bucket, ? AS order_count, " +
+                "? * SUM(oi.quantity) AS items_sold, ? * o.total_amount AS revenue " +
+                "FROM orders o JOIN order_items oi ON oi.order_id = o.order_id WHERE o.order_id = ? " +
+                "GROUP BY o.order_id, o.order_date, o.total_amount) AS d " +
+                "ON DUPLICATE KEY UPDATE order_count = daily_sales.order_count + d.order_count, " +
+                "items_sold = daily_sales.items_sold + d.items_sold, revenue = daily_sales.revenue + d.revenue";
+        try (PreparedStatement pstmt = conn.prepareStatement(dailySql)) {
+            pstmt.setInt(1, SALES_SUMMARY_BUCKETS);
+            pstmt.setInt(2, sign);
+            pstmt.setInt(3, sign);
+            pstmt.setInt(4, sign);
+            pstmt.setInt(5, orderId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Recomputes both summary tables from the full order history, e.g. after orders were changed outside the app.
+     * Scans every order, so it is meant as an occasional admin action.
+     * @return The number of days that had sales.
+     */
+    public int rebuildSalesSummaries() throws SQLException {
+        return metrics.time("rebuildSalesSummaries", () -> {
+            return inTransaction(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DELETE FROM product_sales");
+                    stmt.executeUpdate("DELETE FROM daily_sales");
+                    stmt.executeUpdate("INSERT INTO product_sales (sale_date, product_id, quantity_sold, revenue) " +
+                            "SELECT DATE(o.order_date), oi.product_id, SUM(oi.quantity), SUM(oi.quantity * oi.price_at_purchase) " +
+                            "FROM orders o JOIN order_items oi ON oi.order_id = o.order_id " +
+                            "WHERE o.status <> 'Cancelled' GROUP BY DATE(o.order_date), oi.product_id");
+                }
+                String dailySql = "INSERT INTO daily_sales (sale_date, bucket, order_count, items_sold, revenue) " +
+                        "SELECT DATE(o.order_date), o.order_id % ?, COUNT(*), SUM(i.items), SUM(o.total_amount) FROM orders o " +
+                        "JOIN (SELECT order_id, SUM(quantity) AS items FROM order_items GROUP BY order_id) i ON i.order_id = o.order_id " +
+                        "WHERE o.status <> 'Cancelled' GROUP BY DATE(o.order_date), o.order_id % ?";
+                try (PreparedStatement pstmt = conn.prepareStatement(dailySql)) {
+                    pstmt.setInt(1, SALES_SUMMARY_BUCKETS);
+                    pstmt.setInt(2, SALES_SUMMARY_BUCKETS);
+                    pstmt.executeUpdate();
+                }
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT COUNT(DISTINCT sale_date) FROM daily_sales")) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+        });
+    }
+
+    /**
+     * @return Sales per day from {@code from} to {@code to}, both inclusive, newest first; days without sales are left out.
+     */
+    public List<DailySales> getDailySales(LocalDate from, LocalDate to) throws SQLException {
+        return metrics.time("getDailySales", () -> {
+            String sql = "SELECT sale_date, SUM(order_count) AS order_count, SUM(items_sold) AS items_sold, SUM(revenue) AS revenue " +
+                    "FROM daily_sales WHERE sale_date BETWEEN ? AND ? " +
+                    "GROUP BY sale_date HAVING SUM(order_count) > 0 ORDER BY sale_date DESC";
+            List<DailySales> days = new ArrayList<>();
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setDate(1, Date.valueOf(from));
+                pstmt.setDate(2, Date.valueOf(to));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        days.add(new DailySales(
+                                rs.getDate("sale_date"),
+                                rs.getInt("order_count"),
+                                rs.getInt("items_sold"),
+                                rs.getBigDecimal("revenue")
+                        ));
+                    }
+                }
+            }
+            return days;
+        });
+    }
+
+    /**
+     * @return The {@code limit} products with the most revenue from {@code from} to {@code to}, both inclusive.
+     */
+    public List<ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit) throws SQLException {
+        return metrics.time("getTopProducts", () -> {
+            String sql = "SELECT ps.product_id, p.name, SUM(ps.quantity_sold) AS quantity_sold, SUM(ps.revenue) AS revenue " +
+                    "FROM product_sales ps JOIN products p ON p.product_id = ps.product_id " +
+                    "WHERE ps.sale_date BETWEEN ? AND ? " +
+                    "GROUP BY ps.product_id, p.name HAVING SUM(ps.quantity_sold) > 0 " +
+                    "ORDER BY revenue DESC, ps.product_id LIMIT ?";
+            List<ProductSales> products = new ArrayList<>();
+            try (Connection conn = getReadConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setDate(1, Date.valueOf(from));
+                pstmt.setDate(2, Date.valueOf(to));
+                pstmt.setInt(3, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        products.add(new ProductSales(
+                                rs.getInt("product_id"),
+                                rs.getString("name"),
+                                rs.getInt("quantity_sold"),
+                                rs.getBigDecimal("revenue")
+                        ));
+                    }
+                }
+            }
+            return products;
+        });
     }
 }
@@ -0,0 +1,503 @@
+// DbMetrics.java - Latency histograms, row and error counts, and a slow-call log for DatabaseManager
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation for DatabaseManager. Each public method runs its body through {@link #time}, which records
+ * the call's latency in a per-method histogram and counts calls and errors. While a call is running, the
+ * connections it borrows are wrapped by {@link #instrument} so every statement's SQL, bind parameters, time
+ * and row count are attributed to it; rows are counted as result sets are read and from update counts.
+ *
+ * A call slower than the slow-call threshold ({@code -Dstore.slowCallMillis}, 500 ms by default) or one that
+ * fails is logged to System.err with its statements. The figures are exposed through {@link DbMetricsMXBean}
+ * and can be printed as a summary table. Thread-safe.
+ */
+class DbMetrics implements DbMetricsMXBean {
+    private static final long DEFAULT_SLOW_CALL_MILLIS = 500;
+    // Statements kept per call for the slow-call log; the count of the rest is still reported
+    private static final int MAX_STATEMENTS_PER_CALL = 20;
+    private static final int MAX_LOGGED_VALUE_LENGTH = 100;
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    /**
+     * A DatabaseManager method body.
+     */
+    interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final ThreadLocal<CallContext> currentCall = new ThreadLocal<>();
+    private volatile long slowCallThresholdMillis = Long.getLong("store.slowCallMillis", DEFAULT_SLOW_CALL_MILLIS);
+    private long callsAtLastSummary;
+    private ObjectName objectName;
+
+    /**
+     * Runs one DatabaseManager method and records it under {@code operation}. A call made from inside another
+     * recorded call (one public method using another) is counted as part of the outer one only.
+     */
+    public <T> T time(String operation, SqlCall<T> call) throws SQLException {
+        if (currentCall.get() != null) {
+            return call.call();
+        }
+        CallContext context = new CallContext(operation);
+        currentCall.set(context);
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return call.call();
+        } catch (SQLException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            currentCall.remove();
+            operations.computeIfAbsent(operation, k -> new OperationMetrics()).record(elapsedNanos, context.rows, error != null);
+            long threshold = slowCallThresholdMillis;
+            if (error != null || (threshold >= 0 && elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(threshold))) {
+                logCall(context, elapsedNanos, error);
+            }
+        }
+    }
+
+    /**
+     * @return {@code conn} wrapped to record its statements if a call is running on this thread, else {@code conn} itself.
+     */
+    public Connection instrument(Connection conn) {
+        CallContext context = currentCall.get();
+        if (context == null) {
+            return conn;
+        }
+        return (Connection) Proxy.newProxyInstance(DbMetrics.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(conn, context));
+    }
+
+    // --- JMX and reporting ---
+
+    /**
+     * Registers this object with the platform MBean server. Failure is logged and otherwise ignored.
+     */
+    public synchronized void register() {
+        if (objectName != null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName("store:type=DbMetrics,instance=" + INSTANCES.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            objectName = name;
+        } catch (Exception e) {
+            System.err.println("DbMetrics: Could not register with JMX: " + e.getMessage());
+        }
+    }
+
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            System.err.println("DbMetrics: Could not unregister from JMX: " + e.getMessage());
+        }
+        objectName = null;
+    }
+
+    /**
+     * Prints the summary table to System.out, unless no call was recorded since the last time.
+     */
+    public void logSummary() {
+        long calls = 0;
+        for (OperationMetrics metrics : operations.values()) {
+            calls += metrics.calls.sum();
+        }
+        synchronized (this) {
+            if (calls == callsAtLastSummary) {
+                return;
+            }
+            callsAtLastSummary = calls;
+        }
+        System.out.println("DbMetrics summary:\n" + getSummary());
+    }
+
+    @Override
+    public List<OperationStats> getOperations() {
+        List<OperationStats> stats = new ArrayList<>();
+        for (Map.Entry<String, OperationMetrics> entry : operations.entrySet()) {
+            stats.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        stats.sort(Comparator.comparingDouble((OperationStats s) -> s.getMeanMillis() * s.getCalls()).reversed());
+        return stats;
+    }
+
+    @Override
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder(String.format("%-32s %9s %7s %11s %9s %9s %9s %9s %9s%n",
+                "operation", "calls", "errors", "rows", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (OperationStats s : getOperations()) {
+            sb.append(String.format("%-32s %9d %7d %11d %9.2f %9.2f %9.2f %9.2f %9.2f%n", s.getOperation(), s.getCalls(),
+                    s.getErrors(), s.getRows(), s.getMeanMillis(), s.getP50Millis(), s.getP95Millis(), s.getP99Millis(), s.getMaxMillis()));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public long getSlowCallThresholdMillis() {
+        return slowCallThresholdMillis;
+    }
+
+    @Override
+    public void setSlowCallThresholdMillis(long millis) {
+        slowCallThresholdMillis = millis;
+    }
+
+    @Override
+    public void reset() {
+        operations.clear();
+        synchronized (this) {
+            callsAtLastSummary = 0;
+        }
+    }
+
+    private static void logCall(CallContext context, long elapsedNanos, Throwable error) {
+        StringBuilder sb = new StringBuilder("DbMetrics: ");
+        sb.append(error != null ? "FAILED CALL " : "SLOW CALL ").append(context.operation)
+                .append(String.format(" took %.1f ms, %d rows", elapsedNanos / 1e6, context.rows));
+        if (error != null) {
+            sb.append(", error: ").append(error.getMessage());
+        }
+        synchronized (context) {
+            for (StatementRecord statement : context.statements) {
+                sb.append("\n    ").append(statement);
+            }
+            if (context.droppedStatements > 0) {
+                sb.append("\n    ... ").append(context.droppedStatements).append(" more statements");
+            }
+        }
+        System.err.println(sb);
+    }
+
+    private static String formatValue(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        String text = value.toString();
+        if (text.length() > MAX_LOGGED_VALUE_LENGTH) {
+            text = text.substring(0, MAX_LOGGED_VALUE_LENGTH) + "...";
+        }
+        return value instanceof Number || value instanceof Boolean ? text : "'" + text + "'";
+    }
+
+    // --- Metrics of one method ---
+
+    private static final class OperationMetrics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        private void record(long elapsedNanos, long rowCount, boolean failed) {
+            latency.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+            calls.increment();
+            rows.add(rowCount);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        private OperationStats snapshot(String operation) {
+            return new OperationStats(operation, calls.sum(), errors.sum(), rows.sum(), latency.mean() / 1000.0,
+                    latency.percentile(0.50) / 1000.0, latency.percentile(0.95) / 1000.0,
+                    latency.percentile(0.99) / 1000.0, latency.max() / 1000.0);
+        }
+    }
+
+    /**
+     * Histogram of microsecond latencies in logarithmic buckets: exact below 8 µs, then 8 buckets per power of
+     * two, so a percentile is reported within 12.5% of the true value. Fixed size, lock-free recording.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_EXPONENT = 40; // about 12 days in microseconds
+        private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long micros) {
+            long value = Math.min(Math.max(micros, 0), (1L << (MAX_EXPONENT + 1)) - 1);
+            counts.incrementAndGet(index(value));
+            total.increment();
+            sum.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        long count() {
+            return total.sum();
+        }
+
+        double mean() {
+            long n = total.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        /**
+         * @return The upper bound of the bucket holding the {@code quantile} (0..1) value, capped at the maximum.
+         */
+        long percentile(double quantile) {
+            long n = total.sum();
+            if (n == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(quantile * n));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= target) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static long upperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long width = 1L << (exponent - SUB_BUCKET_BITS);
+            return (SUB_BUCKETS + index % SUB_BUCKETS) * width + width - 1;
+        }
+    }
+
+    // --- Statement capture ---
+
+    /**
+     * What one call has done so far. Statements may be read by another thread (a streaming sink), hence the locking.
+     */
+    private static final class CallContext {
+        private final String operation;
+        private final List<StatementRecord> statements = new ArrayList<>();
+        private int droppedStatements;
+        private volatile long rows;
+
+        private CallContext(String operation) {
+            this.operation = operation;
+        }
+
+        private synchronized StatementRecord add(String sql, Object[] params, int batchSize) {
+            StatementRecord record = new StatementRecord(sql, params, batchSize);
+            if (statements.size() < MAX_STATEMENTS_PER_CALL) {
+                statements.add(record);
+            } else {
+                droppedStatements++;
+            }
+            return record;
+        }
+
+        private synchronized void addRows(StatementRecord record, long count) {
+            rows += count;
+            record.rows += count;
+        }
+    }
+
+    private static final class StatementRecord {
+        private final String sql;
+        private final Object[] params;
+        private final int batchSize;
+        private long nanos;
+        private long rows;
+
+        private StatementRecord(String sql, Object[] params, int batchSize) {
+            this.sql = sql;
+            this.params = params;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format("%.1f ms, %d rows: %s", nanos / 1e6, rows, sql));
+            if (params != null && params.length > 0 && sql != null && sql.toLowerCase(Locale.ROOT).contains("password")) {
+                sb.append(" -- bind parameters hidden"); // never log credentials
+            } else if (params != null && params.length > 0) {
+                sb.append(batchSize > 0 ? " -- batch of " + batchSize + ", first: [" : " -- [");
+                for (int i = 0; i < params.length; i++) {
+                    sb.append(i == 0 ? "" : ", ").append(formatValue(params[i]));
+                }
+                sb.append(']');
+            }
+            return sb.toString();
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection conn;
+        private final CallContext context;
+
+        private ConnectionHandler(Connection conn, CallContext context) {
+            this.conn = conn;
+            this.context = context;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = DbMetrics.invoke(conn, method, args);
+            String name = method.getName();
+            if (name.equals("prepareStatement")) {
+                return Proxy.newProxyInstance(DbMetrics.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                        new StatementHandler((Statement) result, (String) args[0], context));
+            }
+            if (name.equals("createStatement")) {
+                return Proxy.newProxyInstance(DbMetrics.class.getClassLoader(), new Class<?>[]{Statement.class},
+                        new StatementHandler((Statement) result, null, context));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private final CallContext context;
+        private Object[] params = new Object[0];
+        private int boundCount;
+        private Object[] firstBatchParams;
+        private int batchSize;
+        private StatementRecord lastRecord;
+
+        private StatementHandler(Statement statement, String preparedSql, CallContext context) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.context = context;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                params = new Object[0];
+                boundCount = 0;
+            } else if (name.equals("addBatch") && preparedSql != null) {
+                if (batchSize++ == 0) {
+                    firstBatchParams = Arrays.copyOf(params, boundCount);
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+                firstBatchParams = null;
+            } else if (name.equals("getResultSet")) {
+                ResultSet rs = (ResultSet) DbMetrics.invoke(statement, method, args);
+                return rs == null || lastRecord == null ? rs : wrap(rs, lastRecord);
+            }
+            return DbMetrics.invoke(statement, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index > params.length) {
+                params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            }
+            params[index - 1] = value;
+            boundCount = Math.max(boundCount, index);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            boolean batch = method.getName().startsWith("executeBatch") || method.getName().startsWith("executeLargeBatch");
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            Object[] boundParams = preparedSql == null ? null : (batch ? firstBatchParams : Arrays.copyOf(params, boundCount));
+            StatementRecord record = context.add(sql, boundParams, batch ? batchSize : 0);
+            lastRecord = record;
+            if (batch) {
+                batchSize = 0;
+                firstBatchParams = null;
+            }
+            long start = System.nanoTime();
+            try {
+                Object result = DbMetrics.invoke(statement, method, args);
+                if (result instanceof ResultSet) {
+                    return wrap((ResultSet) result, record);
+                }
+                if (result instanceof Number) {
+                    context.addRows(record, Math.max(0, ((Number) result).longValue()));
+                } else if (result instanceof int[]) {
+                    long total = 0;
+                    for (int count : (int[]) result) {
+                        total += Math.max(0, count);
+                    }
+                    context.addRows(record, total);
+                } else if (result instanceof long[]) {
+                    long total = 0;
+                    for (long count : (long[]) result) {
+                        total += Math.max(0, count);
+                    }
+                    context.addRows(record, total);
+                }
+                return result;
+            } finally {
+                record.nanos = System.nanoTime() - start; // for queries: until the result set is returned
+            }
+        }
+
+        private ResultSet wrap(ResultSet rs, StatementRecord record) {
+            return (ResultSet) Proxy.newProxyInstance(DbMetrics.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        Object result = DbMetrics.invoke(rs, method, args);
+                        if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                            context.addRows(record, 1);
+                        }
+                        return result;
+                    });
+        }
+    }
+}
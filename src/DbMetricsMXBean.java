@@ -0,0 +1,70 @@
+// DbMetricsMXBean.java - JMX view of DatabaseManager's call metrics
+import java.beans.ConstructorProperties;
+import java.util.List;
+
+/**
+ * Management interface of {@link DbMetrics}, registered as {@code store:type=DbMetrics,instance=N} while a
+ * DatabaseManager is connected. Browse it with JConsole or VisualVM. Latencies are in milliseconds and
+ * cover everything since the start or the last {@link #reset()}.
+ */
+public interface DbMetricsMXBean {
+
+    /**
+     * @return One entry per DatabaseManager method called so far, slowest total time first.
+     */
+    List<OperationStats> getOperations();
+
+    /**
+     * @return The same figures as a text table, as written to the periodic log summary.
+     */
+    String getSummary();
+
+    long getSlowCallThresholdMillis();
+
+    /**
+     * Calls that take at least this long are logged with their SQL and bind parameters; negative turns the log off.
+     */
+    void setSlowCallThresholdMillis(long millis);
+
+    void reset();
+
+    /**
+     * Snapshot of one method's metrics.
+     */
+    class OperationStats {
+        private final String operation;
+        private final long calls;
+        private final long errors;
+        private final long rows;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        @ConstructorProperties({"operation", "calls", "errors", "rows", "meanMillis", "p50Millis", "p95Millis", "p99Millis", "maxMillis"})
+        public OperationStats(String operation, long calls, long errors, long rows, double meanMillis,
+                              double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+            this.operation = operation;
+            this.calls = calls;
+            this.errors = errors;
+            this.rows = rows;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getOperation() { return operation; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        /** Rows read from result sets plus rows reported changed by updates. */
+        public long getRows() { return rows; }
+        public double getMeanMillis() { return meanMillis; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP95Millis() { return p95Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+    }
+}
@@ -0,0 +1,40 @@
+// EventBus.java - In-process publish/subscribe for application events
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Hands each published event to the listeners subscribed to its class, on the publishing thread.
+ * A listener that throws is logged and does not keep the event from the others; listeners that
+ * touch Swing components must move to the EDT themselves.
+ */
+class EventBus {
+    private final Map<Class<?>, List<Consumer<Object>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * @return Removes the listener again when run.
+     */
+    public <T> Runnable subscribe(Class<T> eventType, Consumer<? super T> listener) {
+        Consumer<Object> typed = event -> listener.accept(eventType.cast(event));
+        List<Consumer<Object>> subscribed = listeners.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>());
+        subscribed.add(typed);
+        return () -> subscribed.remove(typed);
+    }
+
+    public void publish(Object event) {
+        List<Consumer<Object>> subscribed = listeners.get(event.getClass());
+        if (subscribed == null) {
+            return;
+        }
+        for (Consumer<Object> listener : subscribed) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("EventBus: Listener failed on " + event + ": " + e);
+                e.printStackTrace();
+            }
+        }
+    }
+}
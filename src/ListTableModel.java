@@ -0,0 +1,112 @@
+// ListTableModel.java - Read-only table model that shows a list of domain objects without copying it
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Table model backed directly by a {@code List<T>}: each column reads its cell from the row object when the
+ * table asks for it, so loading a list is one {@code fireTableDataChanged} instead of a boxed Vector and an
+ * event per row as with DefaultTableModel. Columns declare their class, so a TableRowSorter sorts numbers,
+ * prices and dates by value. Cells are not editable.
+ *
+ * The model keeps the list it is given. Change it through the model's methods, or call
+ * {@code fireTableDataChanged()} after changing it directly.
+ */
+class ListTableModel<T> extends AbstractTableModel {
+
+    /**
+     * One column: its header, its value class and how to read the value from a row.
+     */
+    static final class Column<T> {
+        private final String name;
+        private final Class<?> type;
+        private final Function<? super T, ?> value;
+
+        private Column(String name, Class<?> type, Function<? super T, ?> value) {
+            this.name = name;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    static <T> Column<T> column(String name, Class<?> type, Function<? super T, ?> value) {
+        return new Column<>(name, type, value);
+    }
+
+    private final List<Column<T>> columns;
+    private List<T> rows = new ArrayList<>();
+
+    @SafeVarargs
+    public ListTableModel(Column<T>... columns) {
+        this.columns = Arrays.asList(columns);
+    }
+
+    /**
+     * Shows {@code rows}, firing a single change event. The list is used as is, not copied.
+     */
+    public void setRows(List<T> rows) {
+        this.rows = rows;
+        fireTableDataChanged();
+    }
+
+    public void clear() {
+        setRows(new ArrayList<>());
+    }
+
+    /**
+     * @return The row object at a model index; convert view indexes with {@code JTable.convertRowIndexToModel}.
+     */
+    public T getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    /**
+     * @return A read-only view of the rows, in model order.
+     */
+    public List<T> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    public void setRow(int rowIndex, T row) {
+        rows.set(rowIndex, row);
+        fireTableRowsUpdated(rowIndex, rowIndex);
+    }
+
+    public void insertRow(int rowIndex, T row) {
+        rows.add(rowIndex, row);
+        fireTableRowsInserted(rowIndex, rowIndex);
+    }
+
+    public void removeRow(int rowIndex) {
+        rows.remove(rowIndex);
+        fireTableRowsDeleted(rowIndex, rowIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) {
+        return columns.get(columnIndex).name;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return columns.get(columnIndex).type;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return columns.get(columnIndex).value.apply(rows.get(rowIndex));
+    }
+}
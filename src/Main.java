@@ -1,13 +1,14 @@
 // Main.java - Entry point of the GUI application
 import javax.swing.SwingUtilities;
 import javax.swing.JOptionPane;
-import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Main class to launch the Store Management System GUI application.
  * It initializes the database manager and ensures the GUI is created and updated
  * on the Event Dispatch Thread (EDT), which is essential for Swing applications.
- * This class also manages the single database connection for the entire application lifecycle.
+ * This class also manages the database connection pool for the entire application lifecycle.
  */
 public class Main {
 
@@ -15,55 +16,66 @@ public class Main {
         // Database connection details
         // IMPORTANT: Replace 'your_username' and 'your_password' with your actual MySQL credentials.
         // For example, if you set 'root' with password 'root123', use those values.
-        String url = "jdbc:mysql://localhost:3306/mydb";
+        // rewriteBatchedStatements lets Connector/J send each JDBC batch (e.g. checkout's order items) in one round trip.
+        String url = "jdbc:mysql://localhost:3306/mydb?rewriteBatchedStatements=true";
         String username = "root"; // e.g., "root" or "app_user"
         String password = "root"; // e.g., "root123" or "app_password"
+        // Optional read replicas for catalog and order history reads, e.g.
+        // -Dstore.db.replicas=jdbc:mysql://replica1:3306,jdbc:mysql://replica2:3306
+        List<String> replicaUrls = new ArrayList<>();
+        for (String replica : System.getProperty("store.db.replicas", "").split(",")) {
+            if (!replica.trim().isEmpty()) {
+                replicaUrls.add(replica.trim());
+            }
+        }
+
+        // Initialize DatabaseManager and start the connection pool once at application startup. The connections
+        // are opened in the background while the window is built; database calls made before that finishes wait for it.
+        DatabaseManager dbManager = new DatabaseManager(url, replicaUrls, username, password);
+        dbManager.connectInBackground().whenComplete((connected, error) -> {
+            if (error == null) {
+                System.out.println("Database connection pool started for Store Management App ("
+                        + StoreManagementApp.millisSinceJvmStart() + " ms after JVM start).");
+                return;
+            }
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            cause.printStackTrace();
+            SwingUtilities.invokeLater(() -> {
+                // Display a critical error if connection fails at startup
+                JOptionPane.showMessageDialog(null,
+                        "Failed to connect to the database. Please check your MySQL server and credentials.\n" + cause.getMessage(),
+                        "Database Connection Error", JOptionPane.ERROR_MESSAGE);
+                // If connection failed at start, no need to call close on dbManager
+                System.exit(1); // Exit application if database connection cannot be established
+            });
+        });
 
         // Use SwingUtilities.invokeLater to ensure the GUI is created and updated on the Event Dispatch Thread (EDT).
         SwingUtilities.invokeLater(() -> {
-            DatabaseManager dbManager = null;
             try {
-                // Initialize DatabaseManager
-                dbManager = new DatabaseManager(url, username, password);
-                // Establish database connection once at application startup
-                dbManager.connect();
-                System.out.println("Database connection established for Store Management App.");
-
                 // Create and show the main Store Management Application GUI
                 StoreManagementApp app = new StoreManagementApp(dbManager);
                 app.setVisible(true);
+                System.out.println("Startup: window shown " + StoreManagementApp.millisSinceJvmStart() + " ms after JVM start.");
 
-                // Add a window listener to close the database connection when the application exits
-                final DatabaseManager finalDbManager = dbManager; // Make dbManager effectively final for lambda
+                // Add a window listener to close the connection pool when the application exits
                 app.addWindowListener(new java.awt.event.WindowAdapter() {
                     @Override
                     public void windowClosing(java.awt.event.WindowEvent windowEvent) {
-                        if (finalDbManager != null) {
-                            finalDbManager.close();
-                            System.out.println("Database connection closed gracefully.");
-                        }
+                        app.shutdown(); // let queued bills finish before the pool goes away
+                        dbManager.close();
+                        System.out.println("Database connection pool closed gracefully.");
                         System.exit(0); // Ensure the application exits completely
                     }
                 });
 
-            } catch (SQLException e) {
-                // Display a critical error if connection fails at startup
-                JOptionPane.showMessageDialog(null,
-                        "Failed to connect to the database. Please check your MySQL server and credentials.\n" + e.getMessage(),
-                        "Database Connection Error", JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-                // If connection failed at start, no need to call close on dbManager
-                System.exit(1); // Exit application if database connection cannot be established
             } catch (Exception e) {
                 // Catch any other unexpected exceptions during application startup
                 JOptionPane.showMessageDialog(null,
                         "An unexpected error occurred during application startup:\n" + e.getMessage(),
                         "Application Error", JOptionPane.ERROR_MESSAGE);
                 e.printStackTrace();
-                // Ensure dbManager is closed if it was initialized but some other error occurred
-                if (dbManager != null) {
-                    dbManager.close();
-                }
+                dbManager.close();
                 System.exit(1);
             }
         });
@@ -16,6 +16,7 @@ class Order {
     private String status;
     private String paymentMethod; // NEW: To store the payment method
     private List<OrderItem> orderItems; // List of items in this order
+    private Timestamp updatedAt; // When the order row last changed, for incremental refreshes
 
     public Order(int orderId, int customerId, Timestamp orderDate, BigDecimal totalAmount, String status, String paymentMethod) {
         this.orderId = orderId;
@@ -35,11 +36,13 @@ class Order {
     public String getStatus() { return status; }
     public String getPaymentMethod() { return paymentMethod; } // NEW
     public List<OrderItem> getOrderItems() { return orderItems; }
+    public Timestamp getUpdatedAt() { return updatedAt; }
 
     // Setters (useful for updating order properties, e.g., status)
     public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
     public void setStatus(String status) { this.status = status; }
     public void setOrderItems(List<OrderItem> orderItems) { this.orderItems = orderItems; }
+    public void setUpdatedAt(Timestamp updatedAt) { this.updatedAt = updatedAt; }
 
     // Helper method to add an item to the order's list of items
     public void addOrderItem(OrderItem item) {
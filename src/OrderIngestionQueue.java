@@ -0,0 +1,170 @@
+// OrderIngestionQueue.java - Group commit for checkouts that arrive at the same time
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent checkouts into shared transactions, so a burst of orders costs one commit (and one
+ * log flush on the server) per batch instead of one per order. A committer thread takes the first waiting
+ * order, collects whatever else arrives within {@code maxWaitMillis}, up to {@code maxBatchSize} orders,
+ * and places them with {@link DatabaseManager#createOrders}: an order that runs out of stock is rejected on
+ * its own while the rest of the batch commits. If the batch transaction itself fails, e.g. on a deadlock
+ * with another till, its orders are retried one by one, so each caller only sees its own order's fate.
+ *
+ * Batching only happens between callers of the same queue, i.e. tills served by one process.
+ */
+class OrderIngestionQueue {
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    /**
+     * A submitted checkout and the future its caller waits on.
+     */
+    private static final class PendingOrder {
+        final DatabaseManager.OrderRequest request;
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        PendingOrder(DatabaseManager.OrderRequest request) {
+            this.request = request;
+        }
+    }
+
+    private final DatabaseManager dbManager;
+    private final long maxWaitMillis;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingOrder> pending = new LinkedBlockingQueue<>();
+    private final Thread committer;
+    private boolean closed; // guarded by this; no order is queued once it is set
+
+    /**
+     * @param maxWaitMillis How long a batch waits for more orders after its first one.
+     * @param maxBatchSize Most orders placed in one transaction.
+     */
+    public OrderIngestionQueue(DatabaseManager dbManager, long maxWaitMillis, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + maxBatchSize);
+        }
+        this.dbManager = dbManager;
+        this.maxWaitMillis = maxWaitMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.committer = new Thread(this::commitLoop, "order-group-commit");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Queues an order, with the same arguments as {@link DatabaseManager#createOrder}.
+     * @return A future completed with the new order id, or exceptionally with the SQLException that rejected it.
+     */
+    public CompletableFuture<Integer> submit(int customerId, Map<Integer, Integer> cartItems, BigDecimal totalAmount,
+                                             String paymentMethod, Map<Integer, Integer> reservationIds) {
+        PendingOrder order = new PendingOrder(
+                new DatabaseManager.OrderRequest(customerId, cartItems, totalAmount, paymentMethod, reservationIds));
+        synchronized (this) {
+            if (closed) {
+                order.result.completeExceptionally(new SQLException("The order queue has been shut down."));
+                return order.result;
+            }
+            pending.add(order);
+        }
+        return order.result;
+    }
+
+    /**
+     * Stops taking orders and waits up to {@code timeoutMillis} for the queued ones to be placed.
+     */
+    public void shutdown(long timeoutMillis) {
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            committer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (committer.isAlive()) {
+            System.err.println("OrderIngestionQueue: " + pending.size() + " order(s) still queued at shutdown.");
+        }
+    }
+
+    private void commitLoop() {
+        try {
+            while (true) {
+                PendingOrder first = pending.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    synchronized (this) {
+                        if (closed && pending.isEmpty()) {
+                            return;
+                        }
+                    }
+                    continue;
+                }
+                place(collectBatch(first));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<PendingOrder> collectBatch(PendingOrder first) throws InterruptedException {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        while (batch.size() < maxBatchSize) {
+            pending.drainTo(batch, maxBatchSize - batch.size()); // whatever is already waiting costs no wait
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            PendingOrder next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void place(List<PendingOrder> batch) {
+        List<DatabaseManager.OrderRequest> requests = new ArrayList<>(batch.size());
+        for (PendingOrder order : batch) {
+            requests.add(order.request);
+        }
+        try {
+            List<DatabaseManager.OrderResult> results = dbManager.createOrders(requests);
+            for (int i = 0; i < batch.size(); i++) {
+                DatabaseManager.OrderResult result = results.get(i);
+                if (result.isPlaced()) {
+                    batch.get(i).result.complete(result.getOrderId());
+                } else {
+                    batch.get(i).result.completeExceptionally(result.getFailure());
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            System.err.println("OrderIngestionQueue: Batch of " + batch.size() + " orders failed (" + e.getMessage()
+                    + "), placing them one by one.");
+            for (PendingOrder order : batch) {
+                placeAlone(order);
+            }
+        }
+    }
+
+    private void placeAlone(PendingOrder order) {
+        DatabaseManager.OrderRequest request = order.request;
+        try {
+            order.result.complete(dbManager.createOrder(request.getCustomerId(), request.getCartItems(),
+                    request.getTotalAmount(), request.getPaymentMethod(), request.getReservationIds()));
+        } catch (SQLException | RuntimeException e) {
+            order.result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+// OrderStore.java - In-memory order history with lookups by id, customer, status and date
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Holds the orders loaded by the admin order table and indexes them, so selecting an order or filtering
+ * the table (e.g. pending orders of one customer this week) never scans the history or asks the database.
+ *
+ * Orders are indexed by id in an {@link IntObjectMap}, by customer id and by status in lists, and by date
+ * through the main list, which is kept newest first like DatabaseManager's order queries. Every list uses
+ * that same order, so query results come out sorted. Used from the EDT only.
+ */
+class OrderStore {
+
+    /** Newest first: order_date descending, then order_id descending. */
+    static final Comparator<Order> NEWEST_FIRST =
+            Comparator.comparing(Order::getOrderDate).thenComparingInt(Order::getOrderId).reversed();
+
+    /**
+     * Criteria for {@link #find}. Every criterion is optional; null matches any value.
+     */
+    static final class Filter {
+        static final Filter ANY = new Filter(null, null, null, null);
+
+        private final Integer customerId;
+        private final String status;
+        private final Timestamp from;
+        private final Timestamp to;
+
+        /**
+         * @param status Compared ignoring case, as order statuses are entered by hand.
+         * @param from Earliest order date, inclusive.
+         * @param to Latest order date, exclusive.
+         */
+        Filter(Integer customerId, String status, Timestamp from, Timestamp to) {
+            this.customerId = customerId;
+            this.status = status;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean matches(Order order) {
+            return (customerId == null || order.getCustomerId() == customerId)
+                    && (status == null || status.equalsIgnoreCase(order.getStatus()))
+                    && (from == null || !order.getOrderDate().before(from))
+                    && (to == null || order.getOrderDate().before(to));
+        }
+
+        boolean isEmpty() {
+            return customerId == null && status == null && from == null && to == null;
+        }
+    }
+
+    private final IntObjectMap<Order> byId = new IntObjectMap<>();
+    private final IntObjectMap<List<Order>> byCustomer = new IntObjectMap<>();
+    private final Map<String, List<Order>> byStatus = new HashMap<>();
+    private final List<Order> byDate = new ArrayList<>();
+
+    /**
+     * Replaces the contents with a freshly loaded history.
+     */
+    public void replaceAll(List<Order> orders) {
+        byId.clear();
+        byCustomer.clear();
+        byStatus.clear();
+        byDate.clear();
+        byDate.addAll(orders);
+        byDate.sort(NEWEST_FIRST);
+        for (Order order : byDate) {
+            byId.put(order.getOrderId(), order);
+            // byDate is sorted, so appending keeps the secondary lists sorted too
+            customerList(order.getCustomerId()).add(order);
+            statusList(order.getStatus()).add(order);
+        }
+    }
+
+    /**
+     * Adds an order, or replaces the stored order with the same id and re-indexes it.
+     * @return The order it replaced, or null if the order is new.
+     */
+    public Order put(Order order) {
+        Order previous = byId.put(order.getOrderId(), order);
+        if (previous != null) {
+            removeSorted(byDate, previous);
+            removeSorted(byCustomer.get(previous.getCustomerId()), previous);
+            removeSorted(byStatus.get(statusKey(previous.getStatus())), previous);
+        }
+        insertSorted(byDate, order);
+        insertSorted(customerList(order.getCustomerId()), order);
+        insertSorted(statusList(order.getStatus()), order);
+        return previous;
+    }
+
+    public Order get(int orderId) {
+        return byId.get(orderId);
+    }
+
+    public int size() {
+        return byDate.size();
+    }
+
+    /**
+     * @return Every order, newest first, as a read-only view.
+     */
+    public List<Order> getAll() {
+        return Collections.unmodifiableList(byDate);
+    }
+
+    /**
+     * @return The orders matching {@code filter}, newest first. Starts from the smallest index that applies.
+     */
+    public List<Order> find(Filter filter) {
+        List<Order> candidates = byDate;
+        if (filter.from != null || filter.to != null) {
+            // Newest first, so the range [from, to) is the run between the first order before 'to' and the first before 'from'
+            int start = filter.to == null ? 0 : firstOlderThan(filter.to);
+            int end = filter.from == null ? byDate.size() : firstOlderThan(filter.from);
+            candidates = byDate.subList(start, Math.max(start, end));
+        }
+        if (filter.customerId != null) {
+            candidates = smaller(candidates, byCustomer.get(filter.customerId));
+        }
+        if (filter.status != null) {
+            candidates = smaller(candidates, byStatus.get(statusKey(filter.status)));
+        }
+        List<Order> result = new ArrayList<>();
+        for (Order order : candidates) {
+            if (filter.matches(order)) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    private static List<Order> smaller(List<Order> current, List<Order> index) {
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        return index.size() < current.size() ? index : current;
+    }
+
+    /**
+     * @return Index of the first order in byDate placed strictly before {@code date}, or size() if there is none.
+     */
+    private int firstOlderThan(Timestamp date) {
+        int low = 0;
+        int high = byDate.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byDate.get(mid).getOrderDate().before(date)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private List<Order> customerList(int customerId) {
+        List<Order> list = byCustomer.get(customerId);
+        if (list == null) {
+            list = new ArrayList<>();
+            byCustomer.put(customerId, list);
+        }
+        return list;
+    }
+
+    private List<Order> statusList(String status) {
+        return byStatus.computeIfAbsent(statusKey(status), k -> new ArrayList<>());
+    }
+
+    private static String statusKey(String status) {
+        return status == null ? "" : status.toLowerCase(Locale.ROOT);
+    }
+
+    private static void insertSorted(List<Order> list, Order order) {
+        int index = Collections.binarySearch(list, order, NEWEST_FIRST);
+        list.add(index < 0 ? -index - 1 : index, order);
+    }
+
+    private static void removeSorted(List<Order> list, Order order) {
+        if (list != null) {
+            int index = Collections.binarySearch(list, order, NEWEST_FIRST);
+            if (index >= 0) {
+                list.remove(index);
+            }
+        }
+    }
+}
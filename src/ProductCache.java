@@ -0,0 +1,184 @@
+// ProductCache.java - Size-bounded, time-limited cache of product rows for DatabaseManager
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache used by DatabaseManager for product reads. Individual products are kept in an LRU map
+ * of at most {@code maxEntries}; the full catalog list is kept as one snapshot. Every entry expires after
+ * {@code ttlMillis}, which bounds how stale a row changed by another client can get.
+ *
+ * Writes invalidate the affected products. A loader records {@link #version()} before it queries and passes
+ * it back to {@code put}, so a row read before an invalidation can never overwrite the invalidation.
+ * Cached Product objects are shared between callers and must be treated as read-only.
+ */
+class ProductCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Integer, Entry<Product>> products;
+    private Entry<List<Product>> catalog;
+    private long version;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxEntries Maximum number of individual products kept.
+     * @param ttlMillis How long an entry stays valid after it was loaded.
+     */
+    public ProductCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.products = new LinkedHashMap<Integer, Entry<Product>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<Product>> eldest) {
+                if (size() > ProductCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return The version to pass to {@code put} for data that is about to be read from the database.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * @return The cached product, or null on a miss (never cached, evicted or expired).
+     */
+    public synchronized Product get(int productId) {
+        Entry<Product> entry = products.get(productId);
+        if (entry != null && !entry.isExpired()) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        if (entry != null) {
+            products.remove(productId);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * @return A copy of the cached full catalog, or null on a miss.
+     */
+    public synchronized List<Product> getAll() {
+        if (catalog != null && !catalog.isExpired()) {
+            hits.incrementAndGet();
+            return new ArrayList<>(catalog.value);
+        }
+        catalog = null;
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Caches a product read from the database, unless something was invalidated since {@code readVersion}.
+     */
+    public synchronized void put(Product product, long readVersion) {
+        if (readVersion == version) {
+            products.put(product.getProductId(), new Entry<>(product, expiry()));
+        }
+    }
+
+    /**
+     * Caches products read as a batch (e.g. a catalog page) without replacing the full-catalog snapshot.
+     */
+    public synchronized void putAll(List<Product> page, long readVersion) {
+        if (readVersion == version) {
+            long expiresAt = expiry();
+            for (Product product : page) {
+                products.put(product.getProductId(), new Entry<>(product, expiresAt));
+            }
+        }
+    }
+
+    /**
+     * Caches the full catalog, and each of its products individually.
+     */
+    public synchronized void putCatalog(List<Product> all, long readVersion) {
+        if (readVersion == version) {
+            catalog = new Entry<>(Collections.unmodifiableList(new ArrayList<>(all)), expiry());
+            putAll(all, readVersion);
+        }
+    }
+
+    /**
+     * Drops one product, and the catalog snapshot that contains it.
+     */
+    public synchronized void invalidate(int productId) {
+        version++;
+        products.remove(productId);
+        catalog = null;
+    }
+
+    public synchronized void invalidate(Iterable<Integer> productIds) {
+        version++;
+        for (int productId : productIds) {
+            products.remove(productId);
+        }
+        catalog = null;
+    }
+
+    /**
+     * Drops the catalog snapshot only, e.g. after a product was added.
+     */
+    public synchronized void invalidateCatalog() {
+        version++;
+        catalog = null;
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        products.clear();
+        catalog = null;
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    public synchronized int size() {
+        return products.size();
+    }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProductCache{size=%d/%d, hits=%d, misses=%d, hitRatio=%.1f%%, evictions=%d}",
+                size(), maxEntries, getHits(), getMisses(), getHitRatio() * 100, getEvictions());
+    }
+
+    private long expiry() {
+        return System.nanoTime() + ttlNanos;
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long expiresAt;
+
+        private Entry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt >= 0;
+        }
+    }
+}
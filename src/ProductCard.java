@@ -0,0 +1,71 @@
+// ProductCard.java - Reusable shop card view for a single product
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * The visual card shown for a product in the shop grid.
+ * A card is not tied to one product: the grid keeps a single card for rendering and a second one
+ * for editing, and rebinds them to whichever product is being painted or clicked.
+ */
+class ProductCard extends JPanel {
+    static final int CARD_WIDTH = 400;
+    static final int CARD_HEIGHT = 325;
+
+    private final JLabel imageLabel;
+    private final JLabel nameLabel;
+    private final JLabel priceLabel;
+    private final JLabel stockLabel;
+    private final JTextField quantityField;
+    private final JButton addToCartButton;
+
+    public ProductCard() {
+        super(new BorderLayout(5, 5));
+        setPreferredSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
+        setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY, 1));
+
+        imageLabel = new JLabel();
+        imageLabel.setPreferredSize(new Dimension(250, 200));
+        imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        add(imageLabel, BorderLayout.NORTH);
+
+        // Using BoxLayout for reliable vertical stacking of product info
+        JPanel infoPanel = new JPanel();
+        infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
+        infoPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        infoPanel.setOpaque(false);
+        nameLabel = new JLabel();
+        priceLabel = new JLabel();
+        stockLabel = new JLabel();
+        infoPanel.add(nameLabel);
+        infoPanel.add(priceLabel);
+        infoPanel.add(stockLabel);
+        add(infoPanel, BorderLayout.CENTER);
+
+        JPanel cartActionsPanel = new JPanel();
+        cartActionsPanel.setOpaque(false);
+        quantityField = new JTextField("1", 3);
+        addToCartButton = new JButton("Add to Cart");
+        cartActionsPanel.add(new JLabel("Qty:"));
+        cartActionsPanel.add(quantityField);
+        cartActionsPanel.add(addToCartButton);
+        add(cartActionsPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Shows the given product on this card.
+     * @param icon The product image, or null to show {@code imageText} instead.
+     * @param imageText Placeholder text used while the image is missing or loading.
+     */
+    public void bind(Product product, ImageIcon icon, String imageText) {
+        imageLabel.setIcon(icon);
+        imageLabel.setText(icon == null ? imageText : null);
+        nameLabel.setText("<html><b>" + product.getName() + "</b></html>");
+        priceLabel.setText("Price: $" + product.getPrice());
+        stockLabel.setText("Stock: " + product.getStockQuantity());
+        stockLabel.setForeground(product.getStockQuantity() == 0 ? Color.RED : Color.BLACK);
+        addToCartButton.setEnabled(product.getStockQuantity() > 0);
+    }
+
+    public JTextField getQuantityField() { return quantityField; }
+    public JButton getAddToCartButton() { return addToCartButton; }
+}
@@ -0,0 +1,64 @@
+// ProductCardEditor.java - Live, clickable ProductCard for the shop grid cell the user interacts with
+import javax.swing.*;
+import javax.swing.table.TableCellEditor;
+import java.awt.*;
+import java.util.EventObject;
+import java.util.function.BiConsumer;
+
+/**
+ * Cell editor for the shop grid. Rendered cards are only pictures, so when the user clicks a card
+ * this editor puts a real ProductCard (quantity field and Add to Cart button) in its place.
+ * Only one such card exists at a time, no matter how many products are listed.
+ */
+class ProductCardEditor extends AbstractCellEditor implements TableCellEditor {
+    private final ProductCard card;
+    private final BiConsumer<ProductCard, Product> binder;
+    private final JPanel cell = new JPanel(new GridBagLayout());
+    private Product product;
+
+    /**
+     * @param binder Fills the card for a product, same as the renderer's.
+     * @param onAddToCart Called with the product and the quantity text when Add to Cart is pressed.
+     */
+    public ProductCardEditor(ProductCard card, BiConsumer<ProductCard, Product> binder, BiConsumer<Product, String> onAddToCart) {
+        this.card = card;
+        this.binder = binder;
+        cell.add(card);
+        card.getAddToCartButton().addActionListener(e -> {
+            if (product != null) {
+                onAddToCart.accept(product, card.getQuantityField().getText());
+            }
+        });
+    }
+
+    @Override
+    public boolean isCellEditable(EventObject e) {
+        return true; // a single click is enough to bring the card to life
+    }
+
+    @Override
+    public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row, int column) {
+        product = (Product) value;
+        binder.accept(card, product);
+        card.getQuantityField().setText("1");
+        cell.setBackground(table.getBackground());
+        return cell;
+    }
+
+    /**
+     * Re-binds the live card if it shows this product, keeping whatever quantity the user has typed.
+     */
+    public void refresh(Product updated) {
+        if (product != null && product.getProductId() == updated.getProductId()) {
+            product = updated;
+            String quantity = card.getQuantityField().getText();
+            binder.accept(card, product);
+            card.getQuantityField().setText(quantity);
+        }
+    }
+
+    @Override
+    public Object getCellEditorValue() {
+        return product;
+    }
+}
@@ -0,0 +1,36 @@
+// ProductCardRenderer.java - Paints shop grid cells with one shared ProductCard
+import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Renders every product cell of the shop grid by rebinding a single ProductCard,
+ * so the number of Swing components no longer grows with the size of the catalog.
+ */
+class ProductCardRenderer implements TableCellRenderer {
+    private final ProductCard card;
+    private final BiConsumer<ProductCard, Product> binder;
+    private final JPanel cell = new JPanel(new GridBagLayout());
+    private final JPanel emptyCell = new JPanel();
+
+    /**
+     * @param binder Fills the card for a product (text, image, stock state).
+     */
+    public ProductCardRenderer(ProductCard card, BiConsumer<ProductCard, Product> binder) {
+        this.card = card;
+        this.binder = binder;
+        cell.add(card);
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+        if (value == null) {
+            emptyCell.setBackground(table.getBackground());
+            return emptyCell;
+        }
+        binder.accept(card, (Product) value);
+        cell.setBackground(table.getBackground());
+        return cell;
+    }
+}
@@ -0,0 +1,132 @@
+// ProductGridModel.java - Table model that lays the shop catalog out as a grid of product cards
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes a flat list of products as rows of {@code columns} cards, so a JTable can show the shop
+ * catalog and only paint the cards that are actually visible. Each cell value is a Product,
+ * or null for the empty cells at the end of the last row.
+ */
+class ProductGridModel extends AbstractTableModel {
+    private final int columns;
+    private final List<Product> products = new ArrayList<>();
+    // Product ID -> position in the products list, for in-place updates
+    private final Map<Integer, Integer> positions = new HashMap<>();
+
+    public ProductGridModel(int columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public int getRowCount() {
+        return (products.size() + columns - 1) / columns;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return Product.class;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int index = rowIndex * columns + columnIndex;
+        return index < products.size() ? products.get(index) : null;
+    }
+
+    /**
+     * Cards with a product are "editable" so a click hands them to the card editor,
+     * which provides the live quantity field and Add to Cart button.
+     */
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return getValueAt(rowIndex, columnIndex) != null;
+    }
+
+    @Override
+    public void setValueAt(Object value, int rowIndex, int columnIndex) {
+        // The card editor never changes the product itself.
+    }
+
+    /**
+     * Removes every product from the grid.
+     */
+    public void clear() {
+        products.clear();
+        positions.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Appends a page of products after the ones already shown.
+     */
+    public void appendProducts(List<Product> page) {
+        if (page.isEmpty()) {
+            return;
+        }
+        int oldRowCount = getRowCount();
+        int firstChangedRow = products.size() / columns;
+        for (Product product : page) {
+            positions.put(product.getProductId(), products.size());
+            products.add(product);
+        }
+        if (firstChangedRow < oldRowCount) {
+            fireTableRowsUpdated(firstChangedRow, firstChangedRow); // the old last row was only partially filled
+        }
+        if (getRowCount() > oldRowCount) {
+            fireTableRowsInserted(oldRowCount, getRowCount() - 1);
+        }
+    }
+
+    /**
+     * Replaces a product already shown in the grid and repaints only its card.
+     * @return true if the product was in the grid.
+     */
+    public boolean updateProduct(Product product) {
+        Integer index = positions.get(product.getProductId());
+        if (index == null) {
+            return false;
+        }
+        products.set(index, product);
+        fireTableCellUpdated(index / columns, index % columns);
+        return true;
+    }
+
+    /**
+     * Removes a product from the grid; the cards after it shift up by one place.
+     */
+    public void removeProduct(int productId) {
+        Integer index = positions.remove(productId);
+        if (index == null) {
+            return;
+        }
+        products.remove((int) index);
+        for (int i = index; i < products.size(); i++) {
+            positions.put(products.get(i).getProductId(), i);
+        }
+        fireTableDataChanged();
+    }
+
+    public Product getProduct(int productId) {
+        Integer index = positions.get(productId);
+        return index == null ? null : products.get(index);
+    }
+
+    public int getProductCount() {
+        return products.size();
+    }
+
+    /**
+     * @return The id of the last product shown, used as the keyset cursor for the next page, or 0 when empty.
+     */
+    public int getLastProductId() {
+        return products.isEmpty() ? 0 : products.get(products.size() - 1).getProductId();
+    }
+}
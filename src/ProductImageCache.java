@@ -0,0 +1,206 @@
+// ProductImageCache.java - Bounded memory + disk cache for scaled product images
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caches product thumbnails in three tiers:
+ * an in-memory LRU of scaled icons, a directory of pre-scaled PNG files that survives restarts,
+ * and finally the image URL itself (http:, https: or file:).
+ * Downloads run on a fixed-size loader pool, and concurrent requests for the same image share one load.
+ */
+class ProductImageCache {
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    private static final int READ_TIMEOUT_MILLIS = 10_000;
+    // Stored in the memory tier for images that could not be loaded, so they are not fetched again on every repaint
+    private static final ImageIcon MISSING = new ImageIcon();
+
+    private final Path cacheDir;
+    private final Map<String, ImageIcon> memory;
+    private final Map<String, CompletableFuture<ImageIcon>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService loaders;
+
+    /**
+     * @param cacheDir Directory for pre-scaled images; created on first write.
+     * @param memoryCapacity Maximum number of scaled icons kept in memory.
+     * @param loaderThreads Number of threads that download and scale images.
+     */
+    public ProductImageCache(Path cacheDir, int memoryCapacity, int loaderThreads) {
+        this.cacheDir = cacheDir;
+        this.memory = new LinkedHashMap<String, ImageIcon>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImageIcon> eldest) {
+                return size() > memoryCapacity;
+            }
+        };
+        AtomicInteger threadCount = new AtomicInteger();
+        this.loaders = Executors.newFixedThreadPool(loaderThreads, r -> {
+            Thread t = new Thread(r, "image-loader-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return The scaled icon if it is in memory, otherwise null. Never blocks.
+     */
+    public ImageIcon getIfCached(String url, int width, int height) {
+        ImageIcon icon;
+        synchronized (memory) {
+            icon = memory.get(key(url, width, height));
+        }
+        return icon == MISSING ? null : icon;
+    }
+
+    /**
+     * @return true if an earlier load of this image failed and is remembered in memory.
+     */
+    public boolean isKnownMissing(String url, int width, int height) {
+        synchronized (memory) {
+            return memory.get(key(url, width, height)) == MISSING;
+        }
+    }
+
+    public boolean isLoading(String url, int width, int height) {
+        return inFlight.containsKey(key(url, width, height));
+    }
+
+    /**
+     * Loads the scaled image from memory, disk or the URL, in that order.
+     * @return A future completed with the icon, or with null if the image cannot be loaded.
+     */
+    public CompletableFuture<ImageIcon> load(String url, int width, int height) {
+        String key = key(url, width, height);
+        synchronized (memory) {
+            ImageIcon cached = memory.get(key);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached == MISSING ? null : cached);
+            }
+        }
+        CompletableFuture<ImageIcon> created = new CompletableFuture<>();
+        CompletableFuture<ImageIcon> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing; // someone is already loading this image, share their result
+        }
+        loaders.execute(() -> {
+            ImageIcon icon = null;
+            try {
+                icon = loadUncached(url, width, height);
+            } catch (RuntimeException e) {
+                System.err.println("Failed to load image: " + url + " (" + e + ")");
+            } finally {
+                // Publish to memory before leaving the in-flight map, so a lookup always finds one or the other
+                synchronized (memory) {
+                    memory.put(key, icon != null ? icon : MISSING);
+                }
+                inFlight.remove(key);
+                created.complete(icon);
+            }
+        });
+        return created;
+    }
+
+    private ImageIcon loadUncached(String url, int width, int height) {
+        Path file = cacheDir.resolve(fileName(url, width, height));
+        try {
+            if (Files.isRegularFile(file)) {
+                BufferedImage img = ImageIO.read(file.toFile());
+                if (img != null) {
+                    return new ImageIcon(img);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("ProductImageCache: Ignoring unreadable cache file " + file + ": " + e.getMessage());
+        }
+
+        try {
+            BufferedImage original = download(url);
+            if (original == null) {
+                return null;
+            }
+            BufferedImage scaled = scale(original, width, height);
+            store(file, scaled);
+            return new ImageIcon(scaled);
+        } catch (IOException e) {
+            System.err.println("Failed to load image: " + url);
+            return null;
+        }
+    }
+
+    private BufferedImage download(String url) throws IOException {
+        URLConnection connection = new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        try (InputStream in = connection.getInputStream()) {
+            return ImageIO.read(in);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage original, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * Writes the scaled image next to its final name and then moves it into place,
+     * so a crash or a concurrent reader never sees a half-written file.
+     */
+    private void store(Path file, BufferedImage scaled) {
+        try {
+            Files.createDirectories(cacheDir);
+            Path temp = Files.createTempFile(cacheDir, "img", ".tmp");
+            try {
+                ImageIO.write(scaled, "png", temp.toFile());
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("ProductImageCache: Could not write cache file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static String key(String url, int width, int height) {
+        return width + "x" + height + "|" + url;
+    }
+
+    private static String fileName(String url, int width, int height) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2 + 16);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.append('_').append(width).append('x').append(height).append(".png").toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,418 @@
+// ProductImporter.java - Bulk product import from CSV: streaming parse, parallel validation, batched upserts
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports products from a CSV file with a header line. Columns are matched by name: {@code name}, {@code price}
+ * and {@code stock_quantity} are required; {@code product_id}, {@code description} and {@code image_url} are
+ * optional and other columns are ignored, so a product export can be imported back. Rows with a product_id
+ * update that product (or create it under that id); rows without one add a new product.
+ *
+ * The file is parsed as a stream and cut into chunks. Chunks are validated with {@link ProductValidator} on a
+ * pool of workers while the calling thread writes finished chunks in file order, each as one batched upsert
+ * in its own transaction. At most {@code maxInFlight} chunks are held in memory. A row that fails validation,
+ * or that the database rejects, is reported with its line number and skipped; the rest of the file is imported.
+ */
+class ProductImporter {
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+
+    /**
+     * Receives progress after every chunk, on the importing thread.
+     */
+    interface ProgressListener {
+        void progress(int rowsRead, int rowsImported, int rowsFailed);
+    }
+
+    /**
+     * A row that was not imported.
+     */
+    static class RowError {
+        private final int lineNumber;
+        private final String message;
+
+        RowError(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public int getLineNumber() { return lineNumber; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + message;
+        }
+    }
+
+    /**
+     * Outcome of an import. Only the first errors are kept; {@link #getRowsFailed()} counts them all.
+     */
+    static class ImportSummary {
+        private final int rowsImported;
+        private final int rowsFailed;
+        private final List<RowError> errors;
+        private final long elapsedMillis;
+
+        ImportSummary(int rowsImported, int rowsFailed, List<RowError> errors, long elapsedMillis) {
+            this.rowsImported = rowsImported;
+            this.rowsFailed = rowsFailed;
+            this.errors = errors;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRowsImported() { return rowsImported; }
+        public int getRowsFailed() { return rowsFailed; }
+        public List<RowError> getErrors() { return errors; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public double getRowsPerSecond() { return elapsedMillis == 0 ? rowsImported : rowsImported * 1000.0 / elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("%d products imported, %d rows rejected, in %.1f s (%.0f products/second)",
+                    rowsImported, rowsFailed, elapsedMillis / 1000.0, getRowsPerSecond());
+        }
+    }
+
+    private final DatabaseManager dbManager;
+    private final int workerCount;
+    private final int chunkSize;
+    private final int maxInFlight;
+
+    /**
+     * @param workerCount Number of threads validating rows.
+     * @param chunkSize Rows per validation task and per upsert transaction.
+     * @param maxInFlight Maximum number of chunks being validated or waiting to be written at any time.
+     */
+    public ProductImporter(DatabaseManager dbManager, int workerCount, int chunkSize, int maxInFlight) {
+        this.dbManager = dbManager;
+        this.workerCount = workerCount;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Imports {@code csvFile} (UTF-8). A file that cannot be read, has no usable header, or a database that
+     * cannot be reached aborts the import; chunks written before that stay written.
+     */
+    public ImportSummary importCsv(Path csvFile, ProgressListener listener) throws IOException, SQLException {
+        long start = System.nanoTime();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService validators = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "product-import-validator-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Progress progress = new Progress();
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new IOException("The file is empty.");
+            }
+            ColumnMap columns = new ColumnMap(header);
+
+            // Chunks are written in the order they were read, so later rows for the same product win
+            Deque<Future<ValidatedChunk>> pending = new ArrayDeque<>();
+            List<CsvRecord> chunk = new ArrayList<>(chunkSize);
+            List<String> fields;
+            while ((fields = csv.readRecord()) != null) {
+                progress.rowsRead++;
+                chunk.add(new CsvRecord(csv.getRecordLine(), fields));
+                if (chunk.size() == chunkSize) {
+                    if (pending.size() == maxInFlight) {
+                        write(await(pending.poll()), progress, listener);
+                    }
+                    List<CsvRecord> rows = chunk;
+                    pending.add(validators.submit(() -> validate(rows, columns)));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<CsvRecord> rows = chunk;
+                pending.add(validators.submit(() -> validate(rows, columns)));
+            }
+            while (!pending.isEmpty()) {
+                write(await(pending.poll()), progress, listener);
+            }
+        } finally {
+            validators.shutdownNow();
+        }
+        return new ImportSummary(progress.rowsImported, progress.rowsFailed,
+                Collections.unmodifiableList(progress.errors), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Runs on a validator thread.
+     */
+    private static ValidatedChunk validate(List<CsvRecord> rows, ColumnMap columns) {
+        ValidatedChunk result = new ValidatedChunk(rows.size());
+        for (CsvRecord row : rows) {
+            String name = columns.get(row.fields, columns.name);
+            String price = columns.get(row.fields, columns.price);
+            String stock = columns.get(row.fields, columns.stock);
+            String imageUrl = columns.get(row.fields, columns.imageUrl).trim();
+            String error = ProductValidator.check(name, price, stock, imageUrl);
+            int productId = 0;
+            String idText = columns.get(row.fields, columns.productId).trim();
+            if (error == null && !idText.isEmpty()) {
+                try {
+                    productId = Integer.parseInt(idText);
+                    if (productId <= 0) {
+                        error = "Product ID must be a positive whole number.";
+                    }
+                } catch (NumberFormatException e) {
+                    error = "Invalid format for Product ID. Please enter a whole number.";
+                }
+            }
+            if (error != null) {
+                result.errors.add(new RowError(row.lineNumber, error));
+                continue;
+            }
+            result.lineNumbers.add(row.lineNumber);
+            result.products.add(new Product(productId, name.trim(), columns.get(row.fields, columns.description).trim(),
+                    new BigDecimal(price.trim()), Integer.parseInt(stock.trim()), imageUrl.isEmpty() ? null : imageUrl));
+        }
+        return result;
+    }
+
+    /**
+     * Upserts a validated chunk in one transaction. If the database rejects the batch, its rows are retried
+     * one at a time so only the offending rows are reported.
+     */
+    private void write(ValidatedChunk chunk, Progress progress, ProgressListener listener) throws SQLException {
+        for (RowError error : chunk.errors) {
+            progress.fail(error);
+        }
+        if (!chunk.products.isEmpty()) {
+            try {
+                progress.rowsImported += dbManager.upsertProducts(chunk.products);
+            } catch (SQLException batchError) {
+                if (isConnectionError(batchError)) {
+                    throw batchError;
+                }
+                for (int i = 0; i < chunk.products.size(); i++) {
+                    try {
+                        progress.rowsImported += dbManager.upsertProducts(Collections.singletonList(chunk.products.get(i)));
+                    } catch (SQLException rowError) {
+                        if (isConnectionError(rowError)) {
+                            throw rowError;
+                        }
+                        progress.fail(new RowError(chunk.lineNumbers.get(i), rowError.getMessage()));
+                    }
+                }
+            }
+        }
+        if (listener != null) {
+            listener.progress(progress.rowsRead, progress.rowsImported, progress.rowsFailed);
+        }
+    }
+
+    /**
+     * True for errors that no other row would avoid: a lost connection or an exhausted pool.
+     */
+    private static boolean isConnectionError(SQLException e) {
+        String state = e.getSQLState();
+        return state == null || state.startsWith("08");
+    }
+
+    private static ValidatedChunk await(Future<ValidatedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Product import was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Product validation failed unexpectedly.", e.getCause());
+        }
+    }
+
+    /**
+     * Counters of one import; only touched by the importing thread.
+     */
+    private static final class Progress {
+        private int rowsRead;
+        private int rowsImported;
+        private int rowsFailed;
+        private final List<RowError> errors = new ArrayList<>();
+
+        private void fail(RowError error) {
+            rowsFailed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    private static final class CsvRecord {
+        private final int lineNumber;
+        private final List<String> fields;
+
+        private CsvRecord(int lineNumber, List<String> fields) {
+            this.lineNumber = lineNumber;
+            this.fields = fields;
+        }
+    }
+
+    private static final class ValidatedChunk {
+        private final List<Product> products;
+        private final List<Integer> lineNumbers;
+        private final List<RowError> errors = new ArrayList<>();
+
+        private ValidatedChunk(int size) {
+            products = new ArrayList<>(size);
+            lineNumbers = new ArrayList<>(size);
+        }
+    }
+
+    /**
+     * Positions of the known columns in the header; -1 for an optional column that is absent.
+     */
+    private static final class ColumnMap {
+        private final int productId, name, description, price, stock, imageUrl;
+
+        private ColumnMap(List<String> header) throws IOException {
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                positions.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            productId = positions.getOrDefault("product_id", -1);
+            name = required(positions, "name");
+            description = positions.getOrDefault("description", -1);
+            price = required(positions, "price");
+            stock = required(positions, "stock_quantity");
+            imageUrl = positions.getOrDefault("image_url", -1);
+        }
+
+        private static int required(Map<String, Integer> positions, String column) throws IOException {
+            Integer position = positions.get(column);
+            if (position == null) {
+                throw new IOException("The header line has no '" + column + "' column.");
+            }
+            return position;
+        }
+
+        /**
+         * @return The field, or "" if the column is absent or the row is short.
+         */
+        private String get(List<String> fields, int position) {
+            return position < 0 || position >= fields.size() ? "" : fields.get(position);
+        }
+    }
+
+    /**
+     * Reads RFC 4180 records one at a time: comma separated, fields optionally in double quotes, a doubled
+     * quote inside quotes for a literal one, and line breaks allowed inside quotes. Blank lines are skipped.
+     */
+    private static final class CsvReader {
+        private final Reader in;
+        private int line = 1;
+        private int recordLine;
+        private int pushedBack = -2;
+
+        private CsvReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * @return Line number on which the last record read started.
+         */
+        private int getRecordLine() {
+            return recordLine;
+        }
+
+        /**
+         * @return The next record's fields, or null at the end of the input.
+         */
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            while (c == '\r' || c == '\n') { // blank lines
+                c = skipLineBreak(c);
+            }
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\uFEFF' && line == 1) { // UTF-8 byte order mark
+                c = read();
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Line " + recordLine + ": a quoted field is not closed.");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue; // the quote closed the field; look at this character unquoted
+                        }
+                    } else if (c == '\n' || c == '\r') {
+                        c = skipLineBreak(c);
+                        field.append('\n');
+                        continue;
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    if (c != -1) {
+                        pushedBack = skipLineBreak(c); // first character of the next record
+                    }
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        /**
+         * Consumes a line break starting with {@code c} (CR, LF or CRLF).
+         * @return The character after it.
+         */
+        private int skipLineBreak(int c) throws IOException {
+            line++;
+            int next = read();
+            if (c == '\r' && next == '\n') {
+                next = read();
+            }
+            return next;
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return in.read();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+// ProductSales.java - POJO for a product's sales over a reporting period
+import java.math.BigDecimal;
+
+/**
+ * POJO representing how much of one product sold over a period, summed from the product_sales summary table.
+ * Cancelled orders are not counted.
+ */
+class ProductSales {
+    private int productId;
+    private String productName;
+    private int quantitySold;
+    private BigDecimal revenue;
+
+    public ProductSales(int productId, String productName, int quantitySold, BigDecimal revenue) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantitySold = quantitySold;
+        this.revenue = revenue;
+    }
+
+    // Getters
+    public int getProductId() { return productId; }
+    public String getProductName() { return productName; }
+    public int getQuantitySold() { return quantitySold; }
+    public BigDecimal getRevenue() { return revenue; }
+
+    @Override
+    public String toString() {
+        return "ProductSales{" +
+                "productId=" + productId +
+                ", productName='" + productName + '\'' +
+                ", quantitySold=" + quantitySold +
+                ", revenue=" + revenue +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+// ProductValidator.java - Field rules shared by the product form and the bulk importer
+import java.math.BigDecimal;
+
+/**
+ * The rules a product must satisfy before it is written: name, price and stock are required, price and
+ * stock must be non-negative numbers, and text must fit its column. Works on the raw text of the fields,
+ * so the admin form and a CSV row are checked the same way. Stateless and thread-safe.
+ */
+final class ProductValidator {
+    static final int MAX_NAME_LENGTH = 100;
+    static final int MAX_IMAGE_URL_LENGTH = 2048;
+
+    private ProductValidator() {
+    }
+
+    /**
+     * @param imageUrl May be null or empty.
+     * @return A message describing the first rule broken, or null if the fields are valid. The text is trimmed first.
+     */
+    static String check(String name, String priceText, String stockText, String imageUrl) {
+        name = name == null ? "" : name.trim();
+        priceText = priceText == null ? "" : priceText.trim();
+        stockText = stockText == null ? "" : stockText.trim();
+
+        if (name.isEmpty() || priceText.isEmpty() || stockText.isEmpty()) {
+            return "Name, Price, and Stock cannot be empty.";
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return "Name cannot be longer than " + MAX_NAME_LENGTH + " characters.";
+        }
+        if (imageUrl != null && imageUrl.trim().length() > MAX_IMAGE_URL_LENGTH) {
+            return "Image URL cannot be longer than " + MAX_IMAGE_URL_LENGTH + " characters.";
+        }
+
+        try {
+            BigDecimal price = new BigDecimal(priceText);
+            if (price.compareTo(BigDecimal.ZERO) < 0) {
+                return "Price cannot be negative.";
+            }
+        } catch (NumberFormatException e) {
+            return "Invalid format for Price. Please enter a number.";
+        }
+
+        try {
+            int stock = Integer.parseInt(stockText);
+            if (stock < 0) {
+                return "Stock cannot be negative.";
+            }
+        } catch (NumberFormatException e) {
+            return "Invalid format for Stock. Please enter a whole number.";
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+// StockChange.java - POJO for one entry of the stock change log
+import java.sql.Timestamp;
+
+/**
+ * POJO representing a row of the stock_changes table: the stock a product was left with by a checkout,
+ * product edit or import, or its deletion.
+ */
+class StockChange {
+    private long changeId;
+    private int productId;
+    private Integer stockQuantity;
+    private Timestamp changedAt;
+
+    public StockChange(long changeId, int productId, Integer stockQuantity, Timestamp changedAt) {
+        this.changeId = changeId;
+        this.productId = productId;
+        this.stockQuantity = stockQuantity;
+        this.changedAt = changedAt;
+    }
+
+    // Getters
+    public long getChangeId() { return changeId; }
+    public int getProductId() { return productId; }
+    /** The new stock, or null if the product was deleted. */
+    public Integer getStockQuantity() { return stockQuantity; }
+    public Timestamp getChangedAt() { return changedAt; }
+    public boolean isProductDeleted() { return stockQuantity == null; }
+
+    @Override
+    public String toString() {
+        return "StockChange{" +
+                "changeId=" + changeId +
+                ", productId=" + productId +
+                ", stockQuantity=" + stockQuantity +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+// StockChangePoller.java - Follows the stock_changes log so every till sees stock changed by the others
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the stock change log on a background thread and publishes a {@link StockChange} on the event bus
+ * for every product whose stock changed since the last poll, by this till or any other. Each product's
+ * entry in the database's product cache is dropped before its change is published.
+ */
+class StockChangePoller {
+    // Each poll re-reads this far behind the newest change seen, so a transaction that committed late with an
+    // earlier changed_at is still picked up; entries already published are recognised by their change id
+    private static final long OVERLAP_MILLIS = 5_000;
+
+    private final DatabaseManager dbManager;
+    private final EventBus eventBus;
+    private final long intervalMillis;
+    private ScheduledExecutorService poller;
+
+    // Only touched by the polling thread
+    private Timestamp highWaterMark; // newest changed_at seen, null before the first change
+    private final Map<Integer, Long> publishedChangeIds = new HashMap<>(); // Product ID -> newest change published
+
+    /**
+     * @param intervalMillis Time between polls.
+     */
+    public StockChangePoller(DatabaseManager dbManager, EventBus eventBus, long intervalMillis) {
+        this.dbManager = dbManager;
+        this.eventBus = eventBus;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public synchronized void start() {
+        if (poller == null) {
+            poller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "stock-change-poller");
+                t.setDaemon(true);
+                return t;
+            });
+            poller.scheduleWithFixedDelay(this::pollQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (SQLException e) {
+            System.err.println("StockChangePoller: Could not read stock changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the log since the high-water mark and publishes the newest unseen change of each product.
+     * A product's log entries are written under its row lock, so their change ids follow commit order.
+     */
+    void poll() throws SQLException {
+        List<StockChange> changes = dbManager.getStockChangesSince(highWaterMark, OVERLAP_MILLIS);
+        Map<Integer, StockChange> newest = new LinkedHashMap<>();
+        for (StockChange change : changes) {
+            Long published = publishedChangeIds.get(change.getProductId());
+            if (published == null || change.getChangeId() > published) {
+                publishedChangeIds.put(change.getProductId(), change.getChangeId());
+                newest.put(change.getProductId(), change);
+            }
+            if (highWaterMark == null || change.getChangedAt().after(highWaterMark)) {
+                highWaterMark = change.getChangedAt();
+            }
+        }
+        for (StockChange change : newest.values()) {
+            dbManager.getProductCache().invalidate(change.getProductId());
+            eventBus.publish(change);
+        }
+    }
+}
@@ -1,20 +1,30 @@
 // StoreManagementApp.java - The main GUI application with all requested changes
 import javax.swing.*;
 import javax.swing.border.Border;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.lang.management.ManagementFactory;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.sql.Date;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
-import javax.imageio.ImageIO;
 
 public class StoreManagementApp extends JFrame {
 
@@ -27,10 +37,16 @@ public class StoreManagementApp extends JFrame {
     // Session-related variables
     private CustomerAccount loggedInCustomerAccount;
     private Customer loggedInCustomerProfile;
-    private List<Order> cachedOrders;
+    // Orders loaded by the admin order table, indexed for lookups and filters; orderTableModel shows the filtered view
+    private final OrderStore orderStore = new OrderStore();
+    private OrderStore.Filter orderFilter = OrderStore.Filter.ANY;
+    // Newest updated_at seen in orderStore; null until the order table has been fully loaded once
+    private Timestamp ordersHighWaterMark;
 
-    // UI Panels
+    // UI Panels; the admin dashboard, the shop and the order history dialog are built the first time they are shown
     private JPanel welcomePanel;
+    private Image welcomeBackground;
+    private boolean firstFrameReported;
     private JPanel loginChoicePanel;
     private JPanel adminLoginPanel;
     private JPanel customerLoginPanel;
@@ -47,23 +63,33 @@ public class StoreManagementApp extends JFrame {
     private JTextField productIdField, productNameField, productPriceField, productStockField, productImageUrlField;
     private JTextArea productDescriptionArea;
     private JTable productTable;
-    private DefaultTableModel productTableModel;
+    private ListTableModel<Product> productTableModel;
     private JLabel productStatusLabel;
 
     private JTextField customerIdField, customerNameField, customerEmailField, customerPhoneField;
     private JTextArea customerAddressArea;
     private JTable customerTable;
-    private DefaultTableModel customerTableModel;
+    private ListTableModel<Customer> customerTableModel;
     private JLabel customerStatusLabel;
 
     private JTable orderTable;
-    private DefaultTableModel orderTableModel;
+    private ListTableModel<Order> orderTableModel;
     private JLabel orderStatusLabel;
-    private JTextField orderIdField, orderStatusTextField;
+    private JTextField orderIdField, orderStatusTextField, orderFilterCustomerField;
+    private JComboBox<String> orderFilterStatusBox, orderFilterDateBox;
     private JTable orderItemsTable;
-    private DefaultTableModel orderItemsTableModel;
-
-    private JPanel productDisplayPanel;
+    private ListTableModel<OrderItem> orderItemsTableModel;
+
+    private JComboBox<String> reportRangeBox;
+    private ListTableModel<DailySales> dailySalesTableModel;
+    private ListTableModel<ProductSales> topProductsTableModel;
+    private JLabel reportTotalsLabel, reportStatusLabel;
+
+    private JTable productGridTable;
+    private ProductCardEditor productCardEditor;
+    // Created up front so admin product edits can patch it whether or not the shop has been opened yet
+    private final ProductGridModel productGridModel = new ProductGridModel(SHOP_MAX_COLUMNS);
+    private JScrollPane productScrollPane;
     private JTextField customerIdForShopField;
     private JLabel shopStatusLabel;
     private JButton viewMyOrdersButton;
@@ -72,7 +98,7 @@ public class StoreManagementApp extends JFrame {
     private JDialog cartDialog, registrationDialog, myOrdersDialog;
     private JTextField cartItemIdField, cartItemQuantityField;
     private JTable cartTable;
-    private DefaultTableModel cartTableModel;
+    private ListTableModel<Product> cartTableModel;
     private JLabel cartTotalLabel;
     private JTextField regNameField, regEmailField, regPhoneField, regUsernameField;
     private JTextArea regAddressArea;
@@ -80,9 +106,50 @@ public class StoreManagementApp extends JFrame {
     private JLabel regStatusLabel;
 
     private JTable myOrdersTable;
-    private DefaultTableModel myOrdersTableModel;
+    private ListTableModel<Order> myOrdersTableModel;
     private JTable myOrderItemsTable;
-    private DefaultTableModel myOrderItemsTableModel;
+    private ListTableModel<OrderItem> myOrderItemsTableModel;
+
+    // Shop catalog paging state (keyset pagination, see DatabaseManager.getProductsPage)
+    private static final int SHOP_PAGE_SIZE = 24;
+    private static final int SHOP_MAX_COLUMNS = 3;
+    private boolean shopHasMorePages;
+    private static final int SHOP_IMAGE_SIZE = 180;
+    private final ProductImageCache imageCache = new ProductImageCache(Paths.get("image-cache"), 500, 4);
+    // Welcome screen background, loaded through the image cache after the window is up.
+    // A welcome.jpg on the classpath is used instead of the download when present.
+    private static final String WELCOME_IMAGE_URL = "https://images.stockcake.com/public/d/9/5/d9577658-936a-4fe4-9900-e8f19748e876_large/electronics-retail-shop-stockcake.jpg";
+    private static final String BUNDLED_WELCOME_IMAGE = "/welcome.jpg";
+
+    // Bills are rendered in the background; the worker count can be tuned with -Dstore.billWorkers=N
+    private static final int BILL_QUEUE_CAPACITY = 100;
+    private final BillService billService;
+
+    // Every database call made by the GUI runs here, off the EDT; the worker count can be tuned with -Dstore.dbWorkers=N
+    private static final int DATA_ACCESS_QUEUE_CAPACITY = 50;
+    private static final String SHOP_PAGE_TASK = "shopPage";
+    // Incremental order refreshes re-read this far behind the high-water mark, so a transaction that
+    // committed late with an earlier updated_at is still picked up; re-applying a seen order is harmless
+    private static final long ORDER_REFRESH_OVERLAP_MILLIS = 5_000;
+    private final DataAccessExecutor dataAccess;
+
+    // Search boxes query the database once typing pauses for this long, and show at most this many rows
+    private static final int SEARCH_DEBOUNCE_MILLIS = 300;
+    private static final int SEARCH_RESULT_LIMIT = 500;
+    private JTextField productSearchField, customerSearchField, shopSearchField;
+
+    // Stock changed by any till reaches the shop through the change log, polled every -Dstore.stockPollMillis=N (0 turns it off)
+    private static final long DEFAULT_STOCK_POLL_MILLIS = 2_000;
+    private final EventBus eventBus = new EventBus();
+    private final StockChangePoller stockChangePoller;
+
+    // Bulk product imports write this many rows per batched upsert transaction
+    private static final int PRODUCT_IMPORT_CHUNK_SIZE = 1_000;
+
+    // The Reports tab reads only the sales summary tables; these are its ranges (in days, today included) and top list size
+    private static final String[] REPORT_RANGE_NAMES = {"Last 7 days", "Last 30 days", "Last 365 days"};
+    private static final int[] REPORT_RANGE_DAYS = {7, 30, 365};
+    private static final int REPORT_TOP_PRODUCTS = 20;
 
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^.-]+@[a-zA-Z0-9.-]+$");
     private static final Pattern NAME_PATTERN = Pattern.compile("^[a-zA-Z\\s]+$");
@@ -93,7 +160,16 @@ public class StoreManagementApp extends JFrame {
     public StoreManagementApp(DatabaseManager dbManager) {
         this.dbManager = dbManager;
         this.currentCart = new Cart();
-        this.cachedOrders = new ArrayList<>();
+        this.billService = new BillService(Paths.get("bills"), Integer.getInteger("store.billWorkers", 2),
+                BILL_QUEUE_CAPACITY, new BillProgressReporter());
+        this.dataAccess = new DataAccessExecutor(Integer.getInteger("store.dbWorkers", 4), DATA_ACCESS_QUEUE_CAPACITY,
+                busy -> setCursor(Cursor.getPredefinedCursor(busy ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR)));
+        long stockPollMillis = Long.getLong("store.stockPollMillis", DEFAULT_STOCK_POLL_MILLIS);
+        this.stockChangePoller = new StockChangePoller(dbManager, eventBus, stockPollMillis);
+        eventBus.subscribe(StockChange.class, change -> SwingUtilities.invokeLater(() -> applyStockChange(change)));
+        if (stockPollMillis > 0) {
+            stockChangePoller.start();
+        }
 
         setTitle("Store Management System");
         // CHANGE: Increased height to prevent scrolling on admin panel
@@ -109,41 +185,33 @@ public class StoreManagementApp extends JFrame {
         initLoginChoicePanel();
         initAdminLoginPanel();
         initCustomerLoginPanel();
-        initAdminDashboardPanel();
-        initShopPanel();
-        initMyOrdersDialog();
 
         mainPanel.add(welcomePanel, "Welcome");
         mainPanel.add(loginChoicePanel, "LoginChoice");
         mainPanel.add(adminLoginPanel, "AdminLogin");
         mainPanel.add(customerLoginPanel, "CustomerLogin");
-        mainPanel.add(createAdminWrapperPanel(), "AdminDashboard");
-        mainPanel.add(shopPanel, "Shop");
 
         cardLayout.show(mainPanel, "Welcome");
+        loadWelcomeBackground();
     }
 
     // --- Panel Initialization Methods ---
 
     private void initWelcomePanel() {
         welcomePanel = new JPanel(new GridBagLayout()) {
-            private Image backgroundImage;
-            {
-                try {
-                    URL imageUrl = new URL("https://images.stockcake.com/public/d/9/5/d9577658-936a-4fe4-9900-e8f19748e876_large/electronics-retail-shop-stockcake.jpg");
-                    backgroundImage = ImageIO.read(imageUrl);
-                } catch (IOException e) {
-                    setBackground(new Color(230, 240, 255));
-                }
-            }
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                if (backgroundImage != null) {
-                    g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
+                if (welcomeBackground != null) {
+                    g.drawImage(welcomeBackground, 0, 0, getWidth(), getHeight(), this);
+                }
+                if (!firstFrameReported) {
+                    firstFrameReported = true;
+                    System.out.println("Startup: first frame painted " + millisSinceJvmStart() + " ms after JVM start.");
                 }
             }
         };
+        welcomePanel.setBackground(new Color(230, 240, 255)); // until the background image is in, or if it cannot be loaded
         welcomePanel.setBorder(BorderFactory.createEmptyBorder(50, 50, 50, 50));
 
         GridBagConstraints gbc = new GridBagConstraints();
@@ -213,6 +281,25 @@ public class StoreManagementApp extends JFrame {
         welcomePanel.add(buttonPanel, gbc);
     }
 
+    /**
+     * Loads the welcome background without holding up the first frame. The image cache keeps a copy scaled to
+     * the window on disk, so only the very first start downloads it.
+     */
+    private void loadWelcomeBackground() {
+        URL bundled = StoreManagementApp.class.getResource(BUNDLED_WELCOME_IMAGE);
+        String imageUrl = bundled != null ? bundled.toString() : WELCOME_IMAGE_URL;
+        imageCache.load(imageUrl, getWidth(), getHeight()).thenAccept(icon -> SwingUtilities.invokeLater(() -> {
+            if (icon != null) {
+                welcomeBackground = icon.getImage();
+                welcomePanel.repaint();
+            }
+        }));
+    }
+
+    static long millisSinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
     private void initLoginChoicePanel() {
         loginChoicePanel = new JPanel(new GridBagLayout());
         loginChoicePanel.setBorder(BorderFactory.createEmptyBorder(50, 100, 50, 100));
@@ -359,23 +446,33 @@ public class StoreManagementApp extends JFrame {
         productTopPanel.add(productInputPanel, BorderLayout.CENTER); productTopPanel.add(productButtonsPanel, BorderLayout.SOUTH);
         productMgmtPanel.add(productTopPanel, BorderLayout.NORTH);
 
-        String[] productColumnNames = {"ID", "Name", "Description", "Price", "Stock", "Image URL"};
-        productTableModel = new DefaultTableModel(productColumnNames, 0) { public boolean isCellEditable(int r, int c){ return false; }};
-        productTable = new JTable(productTableModel); productTable.setFillsViewportHeight(true);
-        productMgmtPanel.add(new JScrollPane(productTable), BorderLayout.CENTER);
+        productTableModel = new ListTableModel<>(
+                ListTableModel.column("ID", Integer.class, Product::getProductId),
+                ListTableModel.column("Name", String.class, Product::getName),
+                ListTableModel.column("Description", String.class, Product::getDescription),
+                ListTableModel.column("Price", BigDecimal.class, Product::getPrice),
+                ListTableModel.column("Stock", Integer.class, Product::getStockQuantity),
+                ListTableModel.column("Image URL", String.class, Product::getImageUrl));
+        productTable = new JTable(productTableModel); productTable.setFillsViewportHeight(true); productTable.setAutoCreateRowSorter(true);
+        JPanel productTablePanel = new JPanel(new BorderLayout(5, 5));
+        JPanel productSearchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        productSearchPanel.add(new JLabel("Search name/description:")); productSearchField = new JTextField(25); productSearchPanel.add(productSearchField);
+        onSearchInput(productSearchField, this::refreshProductTable);
+        productTablePanel.add(productSearchPanel, BorderLayout.NORTH); productTablePanel.add(new JScrollPane(productTable), BorderLayout.CENTER);
+        productMgmtPanel.add(productTablePanel, BorderLayout.CENTER);
         productStatusLabel = new JLabel("Ready.", SwingConstants.CENTER);
         productMgmtPanel.add(productStatusLabel, BorderLayout.SOUTH);
         productTable.addMouseListener(new MouseAdapter() {
             public void mouseClicked(MouseEvent e) {
                 int row = productTable.getSelectedRow();
                 if (row != -1) {
-                    productIdField.setText(productTable.getValueAt(row, 0).toString());
-                    productNameField.setText(productTable.getValueAt(row, 1).toString());
-                    productDescriptionArea.setText(productTable.getValueAt(row, 2).toString());
-                    productPriceField.setText(productTable.getValueAt(row, 3).toString());
-                    productStockField.setText(productTable.getValueAt(row, 4).toString());
-                    Object imgUrl = productTable.getValueAt(row, 5);
-                    productImageUrlField.setText(imgUrl != null ? imgUrl.toString() : "");
+                    Product p = productTableModel.getRow(productTable.convertRowIndexToModel(row));
+                    productIdField.setText(String.valueOf(p.getProductId()));
+                    productNameField.setText(p.getName());
+                    productDescriptionArea.setText(p.getDescription() != null ? p.getDescription() : "");
+                    productPriceField.setText(p.getPrice().toString());
+                    productStockField.setText(String.valueOf(p.getStockQuantity()));
+                    productImageUrlField.setText(p.getImageUrl() != null ? p.getImageUrl() : "");
                 }
             }
         });
@@ -415,23 +512,31 @@ public class StoreManagementApp extends JFrame {
         customerTopPanel.add(customerInputPanel, BorderLayout.CENTER); customerTopPanel.add(customerButtonsPanel, BorderLayout.SOUTH);
         customerMgmtPanel.add(customerTopPanel, BorderLayout.NORTH);
 
-        String[] customerColumnNames = {"ID", "Name", "Email", "Phone", "Address"};
-        customerTableModel = new DefaultTableModel(customerColumnNames, 0) { public boolean isCellEditable(int r, int c) { return false; }};
-        customerTable = new JTable(customerTableModel);
-        customerMgmtPanel.add(new JScrollPane(customerTable), BorderLayout.CENTER);
+        customerTableModel = new ListTableModel<>(
+                ListTableModel.column("ID", Integer.class, Customer::getCustomerId),
+                ListTableModel.column("Name", String.class, Customer::getName),
+                ListTableModel.column("Email", String.class, Customer::getEmail),
+                ListTableModel.column("Phone", String.class, Customer::getPhoneNumber),
+                ListTableModel.column("Address", String.class, Customer::getAddress));
+        customerTable = new JTable(customerTableModel); customerTable.setAutoCreateRowSorter(true);
+        JPanel customerTablePanel = new JPanel(new BorderLayout(5, 5));
+        JPanel customerSearchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        customerSearchPanel.add(new JLabel("Search email/name:")); customerSearchField = new JTextField(25); customerSearchPanel.add(customerSearchField);
+        onSearchInput(customerSearchField, this::refreshCustomerTable);
+        customerTablePanel.add(customerSearchPanel, BorderLayout.NORTH); customerTablePanel.add(new JScrollPane(customerTable), BorderLayout.CENTER);
+        customerMgmtPanel.add(customerTablePanel, BorderLayout.CENTER);
         customerStatusLabel = new JLabel("Ready.");
         customerMgmtPanel.add(customerStatusLabel, BorderLayout.SOUTH);
         customerTable.addMouseListener(new MouseAdapter() {
             public void mouseClicked(MouseEvent e) {
                 int row = customerTable.getSelectedRow();
                 if(row != -1){
-                    customerIdField.setText(customerTable.getValueAt(row, 0).toString());
-                    customerNameField.setText(customerTable.getValueAt(row, 1).toString());
-                    customerEmailField.setText(customerTable.getValueAt(row, 2).toString());
-                    Object phone = customerTable.getValueAt(row, 3);
-                    customerPhoneField.setText(phone != null ? phone.toString() : "");
-                    Object addr = customerTable.getValueAt(row, 4);
-                    customerAddressArea.setText(addr != null ? addr.toString() : "");
+                    Customer c = customerTableModel.getRow(customerTable.convertRowIndexToModel(row));
+                    customerIdField.setText(String.valueOf(c.getCustomerId()));
+                    customerNameField.setText(c.getName());
+                    customerEmailField.setText(c.getEmail());
+                    customerPhoneField.setText(c.getPhoneNumber() != null ? c.getPhoneNumber() : "");
+                    customerAddressArea.setText(c.getAddress() != null ? c.getAddress() : "");
                 }
             }
         });
@@ -446,14 +551,35 @@ public class StoreManagementApp extends JFrame {
         updateOrderStatusButton.addActionListener(e -> updateOrder()); orderControlsPanel.add(updateOrderStatusButton);
         JButton refreshOrdersButton = new JButton("Refresh Orders"); styleGenericButton(refreshOrdersButton, new Color(149, 165, 166), new Color(127, 140, 141));
         refreshOrdersButton.addActionListener(e -> refreshOrderTable()); orderControlsPanel.add(refreshOrdersButton);
-        orderMgmtPanel.add(orderControlsPanel, BorderLayout.NORTH);
+        JButton exportBillsButton = new JButton("Export All Bills"); styleGenericButton(exportBillsButton, new Color(142, 68, 173), new Color(155, 89, 182));
+        exportBillsButton.addActionListener(e -> exportAllBills(exportBillsButton)); orderControlsPanel.add(exportBillsButton);
+        JPanel orderFilterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        orderFilterPanel.add(new JLabel("Filter - Customer ID:")); orderFilterCustomerField = new JTextField(5); orderFilterPanel.add(orderFilterCustomerField);
+        orderFilterPanel.add(new JLabel("Status:")); orderFilterStatusBox = new JComboBox<>(new String[]{"Any", "Pending", "Completed", "Cancelled"}); orderFilterPanel.add(orderFilterStatusBox);
+        orderFilterPanel.add(new JLabel("Placed:")); orderFilterDateBox = new JComboBox<>(new String[]{"Any time", "Today", "This week", "This month"}); orderFilterPanel.add(orderFilterDateBox);
+        JButton applyOrderFilterButton = new JButton("Filter"); styleGenericButton(applyOrderFilterButton, new Color(52, 152, 219), new Color(41, 128, 185));
+        applyOrderFilterButton.addActionListener(e -> applyOrderFilter()); orderFilterPanel.add(applyOrderFilterButton);
+        JButton clearOrderFilterButton = new JButton("Clear Filter"); styleGenericButton(clearOrderFilterButton, new Color(149, 165, 166), new Color(127, 140, 141));
+        clearOrderFilterButton.addActionListener(e -> clearOrderFilter()); orderFilterPanel.add(clearOrderFilterButton);
+        JPanel orderNorthPanel = new JPanel(new GridLayout(2, 1));
+        orderNorthPanel.add(orderControlsPanel); orderNorthPanel.add(orderFilterPanel);
+        orderMgmtPanel.add(orderNorthPanel, BorderLayout.NORTH);
 
         JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT); splitPane.setResizeWeight(0.6);
-        String[] orderColumnNames = {"Order ID", "Customer ID", "Order Date", "Total Amount", "Status", "Payment Method"};
-        orderTableModel = new DefaultTableModel(orderColumnNames, 0) { public boolean isCellEditable(int r, int c){ return false; }};
-        orderTable = new JTable(orderTableModel); splitPane.setTopComponent(new JScrollPane(orderTable));
-        String[] orderItemColumnNames = {"Item ID", "Product ID", "Product Name", "Quantity", "Price at Purchase"};
-        orderItemsTableModel = new DefaultTableModel(orderItemColumnNames, 0) { public boolean isCellEditable(int r, int c){ return false; }};
+        orderTableModel = new ListTableModel<>(
+                ListTableModel.column("Order ID", Integer.class, Order::getOrderId),
+                ListTableModel.column("Customer ID", Integer.class, Order::getCustomerId),
+                ListTableModel.column("Order Date", Timestamp.class, Order::getOrderDate),
+                ListTableModel.column("Total Amount", BigDecimal.class, Order::getTotalAmount),
+                ListTableModel.column("Status", String.class, Order::getStatus),
+                ListTableModel.column("Payment Method", String.class, Order::getPaymentMethod));
+        orderTable = new JTable(orderTableModel); orderTable.setAutoCreateRowSorter(true); splitPane.setTopComponent(new JScrollPane(orderTable));
+        orderItemsTableModel = new ListTableModel<>(
+                ListTableModel.column("Item ID", Integer.class, OrderItem::getOrderItemId),
+                ListTableModel.column("Product ID", Integer.class, OrderItem::getProductId),
+                ListTableModel.column("Product Name", String.class, OrderItem::getProductName),
+                ListTableModel.column("Quantity", Integer.class, OrderItem::getQuantity),
+                ListTableModel.column("Price at Purchase", BigDecimal.class, OrderItem::getPriceAtPurchase));
         orderItemsTable = new JTable(orderItemsTableModel); splitPane.setBottomComponent(new JScrollPane(orderItemsTable));
         orderMgmtPanel.add(splitPane, BorderLayout.CENTER);
         orderStatusLabel = new JLabel("Ready."); orderMgmtPanel.add(orderStatusLabel, BorderLayout.SOUTH);
@@ -461,14 +587,45 @@ public class StoreManagementApp extends JFrame {
             public void mouseClicked(MouseEvent e) {
                 int row = orderTable.getSelectedRow();
                 if (row != -1) {
-                    int id = (int) orderTable.getValueAt(row, 0);
-                    orderIdField.setText(String.valueOf(id));
-                    orderStatusTextField.setText(orderTable.getValueAt(row, 4).toString());
-                    displayOrderItems(id);
+                    Order order = orderTableModel.getRow(orderTable.convertRowIndexToModel(row));
+                    orderIdField.setText(String.valueOf(order.getOrderId()));
+                    orderStatusTextField.setText(order.getStatus());
+                    displayOrderItems(order.getOrderId());
                 }
             }
         });
         adminDashboardPanel.addTab("Order Management", orderMgmtPanel);
+
+        JPanel reportsPanel = new JPanel(new BorderLayout(10, 10));
+        reportsPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        JPanel reportControlsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        reportControlsPanel.add(new JLabel("Period:")); reportRangeBox = new JComboBox<>(REPORT_RANGE_NAMES); reportControlsPanel.add(reportRangeBox);
+        reportRangeBox.addActionListener(e -> refreshReports());
+        JButton refreshReportsButton = new JButton("Refresh Reports"); styleGenericButton(refreshReportsButton, new Color(149, 165, 166), new Color(127, 140, 141));
+        refreshReportsButton.addActionListener(e -> refreshReports()); reportControlsPanel.add(refreshReportsButton);
+        JButton rebuildReportsButton = new JButton("Rebuild Summaries"); styleGenericButton(rebuildReportsButton, new Color(231, 76, 60), new Color(192, 57, 43));
+        rebuildReportsButton.addActionListener(e -> rebuildSalesSummaries()); reportControlsPanel.add(rebuildReportsButton);
+        reportTotalsLabel = new JLabel(" "); reportControlsPanel.add(reportTotalsLabel);
+        reportsPanel.add(reportControlsPanel, BorderLayout.NORTH);
+
+        JSplitPane reportSplitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT); reportSplitPane.setResizeWeight(0.5);
+        dailySalesTableModel = new ListTableModel<>(
+                ListTableModel.column("Date", Date.class, DailySales::getSaleDate),
+                ListTableModel.column("Orders", Integer.class, DailySales::getOrderCount),
+                ListTableModel.column("Items Sold", Integer.class, DailySales::getItemsSold),
+                ListTableModel.column("Revenue", BigDecimal.class, DailySales::getRevenue));
+        JTable dailySalesTable = new JTable(dailySalesTableModel); dailySalesTable.setAutoCreateRowSorter(true);
+        reportSplitPane.setLeftComponent(new JScrollPane(dailySalesTable));
+        topProductsTableModel = new ListTableModel<>(
+                ListTableModel.column("Product ID", Integer.class, ProductSales::getProductId),
+                ListTableModel.column("Product Name", String.class, ProductSales::getProductName),
+                ListTableModel.column("Quantity Sold", Integer.class, ProductSales::getQuantitySold),
+                ListTableModel.column("Revenue", BigDecimal.class, ProductSales::getRevenue));
+        JTable topProductsTable = new JTable(topProductsTableModel); topProductsTable.setAutoCreateRowSorter(true);
+        reportSplitPane.setRightComponent(new JScrollPane(topProductsTable));
+        reportsPanel.add(reportSplitPane, BorderLayout.CENTER);
+        reportStatusLabel = new JLabel("Ready."); reportsPanel.add(reportStatusLabel, BorderLayout.SOUTH);
+        adminDashboardPanel.addTab("Reports", reportsPanel);
     }
 
     private void initShopPanel() {
@@ -508,19 +665,52 @@ public class StoreManagementApp extends JFrame {
         returnToLoginFromShopButton.addActionListener(e -> showWelcomePanel());
         shopControls.add(returnToLoginFromShopButton);
 
-        shopPanel.add(shopControls, BorderLayout.NORTH);
-
-        productDisplayPanel = new JPanel(new GridBagLayout());
-        JScrollPane productScrollPane = new JScrollPane(productDisplayPanel);
+        JPanel shopSearchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        shopSearchPanel.add(new JLabel("Search products:")); shopSearchField = new JTextField(25); shopSearchPanel.add(shopSearchField);
+        onSearchInput(shopSearchField, this::displayProductsInShop);
+        JPanel shopNorthPanel = new JPanel(new GridLayout(2, 1));
+        shopNorthPanel.add(shopControls); shopNorthPanel.add(shopSearchPanel);
+        shopPanel.add(shopNorthPanel, BorderLayout.NORTH);
+
+        // Virtualized grid: the table only paints visible cards, all through one shared renderer card,
+        // and swaps in a single live editor card for the card the user clicks.
+        productGridTable = new JTable(productGridModel);
+        productGridTable.setTableHeader(null);
+        productGridTable.setShowGrid(false);
+        productGridTable.setRowSelectionAllowed(false);
+        productGridTable.setRowHeight(ProductCard.CARD_HEIGHT + 20);
+        productGridTable.setFillsViewportHeight(true);
+        productGridTable.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE);
+        ProductCard editorCard = new ProductCard();
+        styleGenericButton(editorCard.getAddToCartButton(), new Color(52, 152, 219), new Color(41, 128, 185));
+        ProductCard rendererCard = new ProductCard();
+        styleGenericButton(rendererCard.getAddToCartButton(), new Color(52, 152, 219), new Color(41, 128, 185));
+        productGridTable.setDefaultRenderer(Product.class, new ProductCardRenderer(rendererCard, this::bindProductCard));
+        productCardEditor = new ProductCardEditor(editorCard, this::bindProductCard, this::addToCart);
+        productGridTable.setDefaultEditor(Product.class, productCardEditor);
+        productScrollPane = new JScrollPane(productGridTable);
         productScrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         productScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        // Infinite scroll: fetch the next page once the user gets within a card's height of the bottom.
+        productScrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            if (!e.getValueIsAdjusting() && bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - ProductCard.CARD_HEIGHT) {
+                loadNextShopPage();
+            }
+        });
         shopPanel.add(productScrollPane, BorderLayout.CENTER);
 
         shopStatusLabel = new JLabel("Welcome! Add products to your cart.", SwingConstants.CENTER);
         shopPanel.add(shopStatusLabel, BorderLayout.SOUTH);
 
-        String[] cartColumnNames = {"Product ID", "Name", "Price", "Qty", "Subtotal"};
-        cartTableModel = new DefaultTableModel(cartColumnNames, 0) { public boolean isCellEditable(int r, int c){return false;} };
+        // Rows are the cart's products; quantities and subtotals are read from the cart when painted
+        cartTableModel = new ListTableModel<>(
+                ListTableModel.column("Product ID", Integer.class, Product::getProductId),
+                ListTableModel.column("Name", String.class, Product::getName),
+                ListTableModel.column("Price", BigDecimal.class, Product::getPrice),
+                ListTableModel.column("Qty", Integer.class, this::cartQuantity),
+                ListTableModel.column("Subtotal", BigDecimal.class,
+                        p -> p.getPrice().multiply(new BigDecimal(cartQuantity(p))).setScale(2, BigDecimal.ROUND_HALF_UP)));
         cartTable = new JTable(cartTableModel);
     }
 
@@ -536,19 +726,21 @@ public class StoreManagementApp extends JFrame {
 
         JPanel myOrdersPanel = new JPanel(new BorderLayout());
         myOrdersPanel.setBorder(BorderFactory.createTitledBorder("My Orders"));
-        String[] myOrdersColumnNames = {"Order ID", "Order Date", "Total Amount", "Status", "Payment Method"};
-        myOrdersTableModel = new DefaultTableModel(myOrdersColumnNames, 0) {
-            public boolean isCellEditable(int r, int c) { return false; }
-        };
-        myOrdersTable = new JTable(myOrdersTableModel);
+        myOrdersTableModel = new ListTableModel<>(
+                ListTableModel.column("Order ID", Integer.class, Order::getOrderId),
+                ListTableModel.column("Order Date", Timestamp.class, Order::getOrderDate),
+                ListTableModel.column("Total Amount", BigDecimal.class, Order::getTotalAmount),
+                ListTableModel.column("Status", String.class, Order::getStatus),
+                ListTableModel.column("Payment Method", String.class, Order::getPaymentMethod));
+        myOrdersTable = new JTable(myOrdersTableModel); myOrdersTable.setAutoCreateRowSorter(true);
         myOrdersPanel.add(new JScrollPane(myOrdersTable), BorderLayout.CENTER);
 
         JPanel myOrderItemsPanel = new JPanel(new BorderLayout());
         myOrderItemsPanel.setBorder(BorderFactory.createTitledBorder("Items in Selected Order"));
-        String[] myOrderItemsColumnNames = {"Product Name", "Quantity", "Price at Purchase"};
-        myOrderItemsTableModel = new DefaultTableModel(myOrderItemsColumnNames, 0) {
-            public boolean isCellEditable(int r, int c) { return false; }
-        };
+        myOrderItemsTableModel = new ListTableModel<>(
+                ListTableModel.column("Product Name", String.class, OrderItem::getProductName),
+                ListTableModel.column("Quantity", Integer.class, OrderItem::getQuantity),
+                ListTableModel.column("Price at Purchase", BigDecimal.class, OrderItem::getPriceAtPurchase));
         myOrderItemsTable = new JTable(myOrderItemsTableModel);
         myOrderItemsPanel.add(new JScrollPane(myOrderItemsTable), BorderLayout.CENTER);
 
@@ -569,13 +761,28 @@ public class StoreManagementApp extends JFrame {
             public void mouseClicked(MouseEvent e) {
                 int selectedRow = myOrdersTable.getSelectedRow();
                 if (selectedRow != -1) {
-                    int orderId = (int) myOrdersTableModel.getValueAt(selectedRow, 0);
-                    displayMyOrderItems(orderId);
+                    displayMyOrderItems(myOrdersTableModel.getRow(myOrdersTable.convertRowIndexToModel(selectedRow)).getOrderId());
                 }
             }
         });
     }
 
+    /**
+     * Runs {@code search} once typing in {@code field} has paused for SEARCH_DEBOUNCE_MILLIS, so the database
+     * gets one query per pause rather than one per keystroke. Enter searches right away. The search itself is
+     * expected to go through loadAsync with a fixed key, so a newer search supersedes one still running.
+     */
+    private static void onSearchInput(JTextField field, Runnable search) {
+        Timer debounce = new Timer(SEARCH_DEBOUNCE_MILLIS, e -> search.run());
+        debounce.setRepeats(false);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { debounce.restart(); }
+            public void removeUpdate(DocumentEvent e) { debounce.restart(); }
+            public void changedUpdate(DocumentEvent e) { }
+        });
+        field.addActionListener(e -> { debounce.stop(); search.run(); });
+    }
+
     private void styleGenericButton(JButton button, Color bgColor, Color hoverColor) {
         button.setFont(new Font("Segoe UI", Font.BOLD, 14));
         button.setBackground(bgColor);
@@ -591,8 +798,23 @@ public class StoreManagementApp extends JFrame {
         });
     }
 
+    private void ensureAdminDashboardPanel() {
+        if (adminDashboardPanel == null) {
+            initAdminDashboardPanel();
+            mainPanel.add(createAdminWrapperPanel(), "AdminDashboard");
+        }
+    }
+
+    private void ensureShopPanel() {
+        if (shopPanel == null) {
+            initShopPanel();
+            mainPanel.add(shopPanel, "Shop");
+        }
+    }
+
     private JPanel createAdminWrapperPanel() {
         JPanel adminWrapperPanel = new JPanel(new BorderLayout());
+        adminWrapperPanel.add(createAdminMenuBar(), BorderLayout.NORTH);
         adminWrapperPanel.add(adminDashboardPanel, BorderLayout.CENTER);
 
         JButton logoutButton = new JButton("Logout and Return to Welcome Screen");
@@ -606,6 +828,36 @@ public class StoreManagementApp extends JFrame {
         return adminWrapperPanel;
     }
 
+    /**
+     * Menu bar of the admin dashboard. The Import menu bulk-loads products from CSV; the Export menu streams
+     * orders or products to a file for accounting.
+     */
+    private JMenuBar createAdminMenuBar() {
+        JMenuBar menuBar = new JMenuBar();
+        JMenu exportMenu = new JMenu("Export");
+        JCheckBoxMenuItem gzipItem = new JCheckBoxMenuItem("Compress with gzip");
+        JMenuItem ordersCsvItem = new JMenuItem("Orders as CSV...");
+        ordersCsvItem.addActionListener(e -> exportData(true, DataExporter.Format.CSV, gzipItem.isSelected()));
+        JMenuItem ordersJsonItem = new JMenuItem("Orders as JSON Lines...");
+        ordersJsonItem.addActionListener(e -> exportData(true, DataExporter.Format.NDJSON, gzipItem.isSelected()));
+        JMenuItem productsCsvItem = new JMenuItem("Products as CSV...");
+        productsCsvItem.addActionListener(e -> exportData(false, DataExporter.Format.CSV, gzipItem.isSelected()));
+        JMenuItem productsJsonItem = new JMenuItem("Products as JSON Lines...");
+        productsJsonItem.addActionListener(e -> exportData(false, DataExporter.Format.NDJSON, gzipItem.isSelected()));
+        exportMenu.add(ordersCsvItem); exportMenu.add(ordersJsonItem);
+        exportMenu.addSeparator();
+        exportMenu.add(productsCsvItem); exportMenu.add(productsJsonItem);
+        exportMenu.addSeparator();
+        exportMenu.add(gzipItem);
+        JMenu importMenu = new JMenu("Import");
+        JMenuItem productsImportItem = new JMenuItem("Products from CSV...");
+        productsImportItem.addActionListener(e -> importProducts(productsImportItem));
+        importMenu.add(productsImportItem);
+        menuBar.add(importMenu);
+        menuBar.add(exportMenu);
+        return menuBar;
+    }
+
     private void attemptAdminLogin() {
         String username = adminUsernameField.getText().trim();
         String password = new String(adminPasswordField.getPassword());
@@ -613,16 +865,14 @@ public class StoreManagementApp extends JFrame {
             setStatus("Admin username and password are required.", true, adminLoginStatusLabel);
             return;
         }
-        try {
-            Admin admin = dbManager.validateAdmin(username, password);
+        setStatus("Logging in...", false, adminLoginStatusLabel);
+        loadAsync("adminLogin", () -> dbManager.validateAdmin(username, password), admin -> {
             if (admin != null) {
                 showAdminDashboardPanel();
             } else {
                 setStatus("Invalid admin username or password.", true, adminLoginStatusLabel);
             }
-        } catch (SQLException ex) {
-            handleDatabaseError("Admin Login Error: ", ex, adminLoginStatusLabel);
-        }
+        }, "Admin Login Error: ", adminLoginStatusLabel);
     }
 
     private void attemptCustomerLogin() {
@@ -632,138 +882,119 @@ public class StoreManagementApp extends JFrame {
             setStatus("Customer username and password are required.", true, customerLoginStatusLabel);
             return;
         }
-        try {
-            CustomerAccount account = dbManager.validateCustomerAccount(username, password);
-            if (account != null) {
+        setStatus("Logging in...", false, customerLoginStatusLabel);
+        loadAsync("customerLogin", () -> dbManager.validateCustomerAccount(username, password), account -> {
+            if (account == null) {
+                setStatus("Invalid customer username or password.", true, customerLoginStatusLabel);
+                return;
+            }
+            loadAsync("customerLogin", () -> dbManager.getCustomerById(account.getCustomerId()), profile -> {
                 loggedInCustomerAccount = account;
-                loggedInCustomerProfile = dbManager.getCustomerById(account.getCustomerId());
+                loggedInCustomerProfile = profile;
                 if (loggedInCustomerProfile != null) {
                     showShopPanel();
                 } else {
                     setStatus("Login successful, but failed to load customer profile.", true, customerLoginStatusLabel);
                 }
-            } else {
-                setStatus("Invalid customer username or password.", true, customerLoginStatusLabel);
-            }
-        } catch (SQLException ex) {
-            handleDatabaseError("Customer Login Error: ", ex, customerLoginStatusLabel);
-        }
+            }, "Customer Login Error: ", customerLoginStatusLabel);
+        }, "Customer Login Error: ", customerLoginStatusLabel);
     }
 
     private void addProduct() {
         if (!validateProductFields()) return;
-        try {
-            String name = productNameField.getText().trim();
-            String desc = productDescriptionArea.getText().trim();
-            BigDecimal price = new BigDecimal(productPriceField.getText().trim());
-            int stock = Integer.parseInt(productStockField.getText().trim());
-            String imageUrl = productImageUrlField.getText().trim();
-
-            Product product = new Product(0, name, desc, price, stock, imageUrl.isEmpty() ? null : imageUrl);
-            if (dbManager.insertProduct(product) != -1) {
+        String name = productNameField.getText().trim();
+        String desc = productDescriptionArea.getText().trim();
+        BigDecimal price = new BigDecimal(productPriceField.getText().trim());
+        int stock = Integer.parseInt(productStockField.getText().trim());
+        String imageUrl = productImageUrlField.getText().trim();
+
+        Product product = new Product(0, name, desc, price, stock, imageUrl.isEmpty() ? null : imageUrl);
+        writeAsync("productWrite", () -> dbManager.insertProduct(product), productId -> {
+            if (productId != -1) {
                 setStatus("Product '" + name + "' added successfully!", false, productStatusLabel);
                 clearProductFields();
                 refreshProductTable();
-                displayProductsInShop();
+                shopHasMorePages = true; // new ids sort last, so the shop picks it up on its next page load
             } else {
                 setStatus("Failed to add product.", true, productStatusLabel);
             }
-        } catch (SQLException ex) {
-            handleDatabaseError("Error adding product: ", ex, productStatusLabel);
-        }
+        }, "Error adding product: ", productStatusLabel);
     }
 
     private void updateProduct() {
         if (!validateProductFields()) return;
+        int id;
         try {
-            int id = Integer.parseInt(productIdField.getText().trim());
-            String name = productNameField.getText().trim();
-            String desc = productDescriptionArea.getText().trim();
-            BigDecimal price = new BigDecimal(productPriceField.getText().trim());
-            int stock = Integer.parseInt(productStockField.getText().trim());
-            String imageUrl = productImageUrlField.getText().trim();
-
-            Product product = new Product(id, name, desc, price, stock, imageUrl.isEmpty() ? null : imageUrl);
-            if (dbManager.updateProduct(product)) {
+            id = Integer.parseInt(productIdField.getText().trim());
+        } catch (NumberFormatException e) {
+            setStatus("Error: Invalid ID format.", true, productStatusLabel);
+            return;
+        }
+        String name = productNameField.getText().trim();
+        String desc = productDescriptionArea.getText().trim();
+        BigDecimal price = new BigDecimal(productPriceField.getText().trim());
+        int stock = Integer.parseInt(productStockField.getText().trim());
+        String imageUrl = productImageUrlField.getText().trim();
+
+        Product product = new Product(id, name, desc, price, stock, imageUrl.isEmpty() ? null : imageUrl);
+        writeAsync("productWrite", () -> dbManager.updateProduct(product), updated -> {
+            if (updated) {
                 setStatus("Product ID " + id + " updated successfully!", false, productStatusLabel);
                 clearProductFields();
                 refreshProductTable();
-                displayProductsInShop();
+                productGridModel.updateProduct(product);
             } else {
                 setStatus("Failed to update product ID " + id + ". Not found?", true, productStatusLabel);
             }
-        } catch (SQLException ex) {
-            handleDatabaseError("Error updating product: ", ex, productStatusLabel);
-        }
+        }, "Error updating product: ", productStatusLabel);
     }
 
     private boolean validateProductFields() {
-        String name = productNameField.getText().trim();
-        String priceStr = productPriceField.getText().trim();
-        String stockStr = productStockField.getText().trim();
-
-        if (name.isEmpty() || priceStr.isEmpty() || stockStr.isEmpty()) {
-            setStatus("Name, Price, and Stock cannot be empty.", true, productStatusLabel);
+        String error = ProductValidator.check(productNameField.getText(), productPriceField.getText(),
+                productStockField.getText(), productImageUrlField.getText());
+        if (error != null) {
+            setStatus(error, true, productStatusLabel);
             return false;
         }
-
-        try {
-            BigDecimal price = new BigDecimal(priceStr);
-            if (price.compareTo(BigDecimal.ZERO) < 0) {
-                setStatus("Price cannot be negative.", true, productStatusLabel);
-                return false;
-            }
-        } catch (NumberFormatException e) {
-            setStatus("Invalid format for Price. Please enter a number.", true, productStatusLabel);
-            return false;
-        }
-
-        try {
-            int stock = Integer.parseInt(stockStr);
-            if (stock < 0) {
-                setStatus("Stock cannot be negative.", true, productStatusLabel);
-                return false;
-            }
-        } catch (NumberFormatException e) {
-            setStatus("Invalid format for Stock. Please enter a whole number.", true, productStatusLabel);
-            return false;
-        }
-
         return true;
     }
 
     private void deleteProduct() {
+        int id;
         try {
-            int id = Integer.parseInt(productIdField.getText().trim());
-            int confirm = JOptionPane.showConfirmDialog(this, "Delete Product ID " + id + "?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
-            if (confirm != JOptionPane.YES_OPTION) return;
+            id = Integer.parseInt(productIdField.getText().trim());
+        } catch (NumberFormatException e) {
+            setStatus("Error: Invalid ID format.", true, productStatusLabel);
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this, "Delete Product ID " + id + "?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) return;
 
-            if (dbManager.deleteProduct(id)) {
+        writeAsync("productWrite", () -> dbManager.deleteProduct(id), deleted -> {
+            if (deleted) {
                 setStatus("Product ID " + id + " deleted successfully!", false, productStatusLabel);
                 clearProductFields();
                 refreshProductTable();
-                displayProductsInShop();
+                productGridModel.removeProduct(id);
             } else {
                 setStatus("Failed to delete product ID " + id + ". Not found or in use.", true, productStatusLabel);
             }
-        } catch (NumberFormatException e) {
-            setStatus("Error: Invalid ID format.", true, productStatusLabel);
-        } catch (SQLException ex) {
-            handleDatabaseError("Error deleting product: ", ex, productStatusLabel);
-        }
+        }, "Error deleting product: ", productStatusLabel);
     }
 
+    /**
+     * Loads the whole catalog, or only the products matching the search box when it is not empty.
+     */
     private void refreshProductTable() {
-        productTableModel.setRowCount(0);
-        try {
-            List<Product> products = dbManager.getAllProducts();
-            for (Product p : products) {
-                productTableModel.addRow(new Object[]{ p.getProductId(), p.getName(), p.getDescription(), p.getPrice(), p.getStockQuantity(), p.getImageUrl() });
-            }
-            setStatus(products.size() + " products loaded.", false, productStatusLabel);
-        } catch (SQLException ex) {
-            handleDatabaseError("Error refreshing product table: ", ex, productStatusLabel);
-        }
+        String search = productSearchField.getText().trim();
+        DataAccessExecutor.Query<List<Product>> query = search.isEmpty() ? dbManager::getAllProducts
+                : () -> dbManager.searchProducts(search, SEARCH_RESULT_LIMIT);
+        setStatus(search.isEmpty() ? "Loading products..." : "Searching products...", false, productStatusLabel);
+        loadAsync("adminProducts", query, products -> {
+            productTableModel.setRows(products);
+            setStatus(search.isEmpty() ? products.size() + " products loaded."
+                    : products.size() + " products match \"" + search + "\".", false, productStatusLabel);
+        }, "Error refreshing product table: ", productStatusLabel);
     }
 
     private void clearProductFields() {
@@ -778,23 +1009,21 @@ public class StoreManagementApp extends JFrame {
 
     private void addCustomer() {
         if (!validateCustomerFields()) return;
-        try {
-            String name = customerNameField.getText().trim();
-            String email = customerEmailField.getText().trim();
-            String phone = customerPhoneField.getText().trim();
-            String address = customerAddressArea.getText().trim();
+        String name = customerNameField.getText().trim();
+        String email = customerEmailField.getText().trim();
+        String phone = customerPhoneField.getText().trim();
+        String address = customerAddressArea.getText().trim();
 
-            Customer customer = new Customer(0, name, email, phone, address);
-            if (dbManager.insertCustomer(customer) != -1) {
+        Customer customer = new Customer(0, name, email, phone, address);
+        writeAsync("customerWrite", () -> dbManager.insertCustomer(customer), customerId -> {
+            if (customerId != -1) {
                 setStatus("Customer '" + name + "' added successfully!", false, customerStatusLabel);
                 clearCustomerFields();
                 refreshCustomerTable();
             } else {
                 setStatus("Failed to add customer.", true, customerStatusLabel);
             }
-        } catch (SQLException ex) {
-            handleDatabaseError("Error adding customer: ", ex, customerStatusLabel);
-        }
+        }, "Error adding customer: ", customerStatusLabel);
     }
 
     private boolean validateCustomerFields() {
@@ -822,36 +1051,40 @@ public class StoreManagementApp extends JFrame {
     }
 
     private void deleteCustomer() {
+        int id;
         try {
-            int id = Integer.parseInt(customerIdField.getText().trim());
-            int confirm = JOptionPane.showConfirmDialog(this, "Delete Customer ID " + id + "?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
-            if (confirm != JOptionPane.YES_OPTION) return;
+            id = Integer.parseInt(customerIdField.getText().trim());
+        } catch (NumberFormatException e) {
+            setStatus("Error: Invalid ID format.", true, customerStatusLabel);
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this, "Delete Customer ID " + id + "?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) return;
 
-            if (dbManager.deleteCustomer(id)) {
+        writeAsync("customerWrite", () -> dbManager.deleteCustomer(id), deleted -> {
+            if (deleted) {
                 setStatus("Customer ID " + id + " deleted.", false, customerStatusLabel);
                 clearCustomerFields();
                 refreshCustomerTable();
             } else {
                 setStatus("Failed to delete customer ID " + id + ". Not found or has orders.", true, customerStatusLabel);
             }
-        } catch (NumberFormatException e) {
-            setStatus("Error: Invalid ID format.", true, customerStatusLabel);
-        } catch (SQLException ex) {
-            handleDatabaseError("Error deleting customer: ", ex, customerStatusLabel);
-        }
+        }, "Error deleting customer: ", customerStatusLabel);
     }
 
+    /**
+     * Loads every customer, or only those matching the search box when it is not empty.
+     */
     private void refreshCustomerTable() {
-        customerTableModel.setRowCount(0);
-        try {
-            List<Customer> customers = dbManager.getAllCustomers();
-            for (Customer c : customers) {
-                customerTableModel.addRow(new Object[]{ c.getCustomerId(), c.getName(), c.getEmail(), c.getPhoneNumber(), c.getAddress() });
-            }
-            setStatus(customers.size() + " customers loaded.", false, customerStatusLabel);
-        } catch (SQLException ex) {
-            handleDatabaseError("Error refreshing customer table: ", ex, customerStatusLabel);
-        }
+        String search = customerSearchField.getText().trim();
+        DataAccessExecutor.Query<List<Customer>> query = search.isEmpty() ? dbManager::getAllCustomers
+                : () -> dbManager.searchCustomers(search, SEARCH_RESULT_LIMIT);
+        setStatus(search.isEmpty() ? "Loading customers..." : "Searching customers...", false, customerStatusLabel);
+        loadAsync("adminCustomers", query, customers -> {
+            customerTableModel.setRows(customers);
+            setStatus(search.isEmpty() ? customers.size() + " customers loaded."
+                    : customers.size() + " customers match \"" + search + "\".", false, customerStatusLabel);
+        }, "Error refreshing customer table: ", customerStatusLabel);
     }
 
     private void clearCustomerFields() {
@@ -860,50 +1093,345 @@ public class StoreManagementApp extends JFrame {
         setStatus("Fields cleared.", false, customerStatusLabel);
     }
 
+    /**
+     * Reloads the whole order history. Used when the table is first shown and by the Refresh button;
+     * changes made from this app afterwards go through {@link #refreshChangedOrders()}.
+     */
     private void refreshOrderTable() {
-        orderTableModel.setRowCount(0);
-        orderItemsTableModel.setRowCount(0);
-        try {
-            cachedOrders = dbManager.getAllOrders();
-            for (Order o : cachedOrders) {
-                orderTableModel.addRow(new Object[]{ o.getOrderId(), o.getCustomerId(), o.getOrderDate(), o.getTotalAmount(), o.getStatus(), o.getPaymentMethod() });
+        setStatus("Loading orders...", false, orderStatusLabel);
+        dataAccess.cancel("adminOrderChanges"); // the full load supersedes any pending patch
+        loadAsync("adminOrders", dbManager::getAllOrders, orders -> {
+            orderStore.replaceAll(orders);
+            ordersHighWaterMark = new Timestamp(0); // an empty history makes every order a change
+            for (Order o : orders) {
+                advanceOrdersHighWaterMark(o);
+            }
+            showFilteredOrders();
+        }, "Error refreshing order table: ", orderStatusLabel);
+    }
+
+    /**
+     * Fills the order table with the orders of orderStore that match the current filter.
+     */
+    private void showFilteredOrders() {
+        List<Order> shownOrders = orderStore.find(orderFilter);
+        orderTableModel.setRows(shownOrders);
+        orderItemsTableModel.clear();
+        setStatus(orderFilter.isEmpty() ? orderStore.size() + " orders loaded."
+                : shownOrders.size() + " of " + orderStore.size() + " orders match the filter.", false, orderStatusLabel);
+    }
+
+    /**
+     * Applies the filter controls to the loaded orders; no database call is made.
+     */
+    private void applyOrderFilter() {
+        Integer customerId = null;
+        String customerText = orderFilterCustomerField.getText().trim();
+        if (!customerText.isEmpty()) {
+            try {
+                customerId = Integer.parseInt(customerText);
+            } catch (NumberFormatException e) {
+                setStatus("Error: Invalid Customer ID in filter.", true, orderStatusLabel);
+                return;
             }
-            setStatus(cachedOrders.size() + " orders loaded.", false, orderStatusLabel);
-        } catch (SQLException ex) {
-            handleDatabaseError("Error refreshing order table: ", ex, orderStatusLabel);
+        }
+        String status = orderFilterStatusBox.getSelectedIndex() == 0 ? null : (String) orderFilterStatusBox.getSelectedItem();
+        Timestamp from = null;
+        LocalDate today = LocalDate.now();
+        switch (orderFilterDateBox.getSelectedIndex()) {
+            case 1: from = Timestamp.valueOf(today.atStartOfDay()); break;
+            case 2: from = Timestamp.valueOf(today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay()); break;
+            case 3: from = Timestamp.valueOf(today.withDayOfMonth(1).atStartOfDay()); break;
+            default: break;
+        }
+        orderFilter = new OrderStore.Filter(customerId, status, from, null);
+        showFilteredOrders();
+    }
+
+    private void clearOrderFilter() {
+        orderFilterCustomerField.setText("");
+        orderFilterStatusBox.setSelectedIndex(0);
+        orderFilterDateBox.setSelectedIndex(0);
+        orderFilter = OrderStore.Filter.ANY;
+        showFilteredOrders();
+    }
+
+    /**
+     * Fetches only the orders created or changed since the last load and patches them into
+     * orderStore and the table, so the cost follows the number of changes rather than the history size.
+     */
+    private void refreshChangedOrders() {
+        if (ordersHighWaterMark == null || dataAccess.isLoading("adminOrders")) {
+            return; // not loaded yet, or a full load is on its way and will include the change
+        }
+        Timestamp since = new Timestamp(Math.max(0, ordersHighWaterMark.getTime() - ORDER_REFRESH_OVERLAP_MILLIS));
+        loadAsync("adminOrderChanges", () -> dbManager.getOrdersChangedSince(since), this::applyOrderChanges,
+                "Error refreshing order table: ", orderStatusLabel);
+    }
+
+    private void applyOrderChanges(List<Order> changed) {
+        Integer selectedOrderId = null;
+        int selectedRow = orderTable.getSelectedRow();
+        if (selectedRow >= 0) {
+            selectedOrderId = orderTableModel.getRow(orderTable.convertRowIndexToModel(selectedRow)).getOrderId();
+        }
+        List<Order> shownOrders = orderTableModel.getRows();
+        for (Order order : changed) {
+            Order previous = orderStore.put(order);
+            // The model's rows are sorted like the store, so the previous version is found by binary search
+            int oldRow = previous == null ? -1 : Collections.binarySearch(shownOrders, previous, OrderStore.NEWEST_FIRST);
+            boolean show = orderFilter.matches(order);
+            if (oldRow >= 0 && show && OrderStore.NEWEST_FIRST.compare(previous, order) == 0) {
+                orderTableModel.setRow(oldRow, order);
+            } else {
+                if (oldRow >= 0) { // no longer matches the filter, or its order_date changed
+                    orderTableModel.removeRow(oldRow);
+                }
+                if (show) {
+                    int insertAt = Collections.binarySearch(shownOrders, order, OrderStore.NEWEST_FIRST);
+                    orderTableModel.insertRow(insertAt < 0 ? -insertAt - 1 : insertAt, order);
+                }
+            }
+            advanceOrdersHighWaterMark(order);
+            if (selectedOrderId != null && selectedOrderId == order.getOrderId()) {
+                displayOrderItems(order.getOrderId());
+            }
+        }
+        if (!changed.isEmpty()) {
+            setStatus(orderTableModel.getRowCount() + " orders shown, " + changed.size() + " refreshed.", false, orderStatusLabel);
+        }
+    }
+
+    private void advanceOrdersHighWaterMark(Order order) {
+        Timestamp updatedAt = order.getUpdatedAt();
+        if (updatedAt != null && updatedAt.after(ordersHighWaterMark)) {
+            ordersHighWaterMark = updatedAt;
         }
     }
 
     private void displayOrderItems(int orderId) {
-        orderItemsTableModel.setRowCount(0);
-        cachedOrders.stream().filter(o -> o.getOrderId() == orderId).findFirst().ifPresent(order -> {
-            order.getOrderItems().forEach(item -> orderItemsTableModel.addRow(new Object[]{
-                    item.getOrderItemId(), item.getProductId(), item.getProductName(), item.getQuantity(), item.getPriceAtPurchase()
-            }));
+        Order order = orderStore.get(orderId);
+        if (order == null) {
+            orderItemsTableModel.clear();
+        } else {
+            orderItemsTableModel.setRows(order.getOrderItems());
             setStatus("Displaying items for Order ID: " + orderId, false, orderStatusLabel);
-        });
+        }
     }
 
     private void updateOrder() {
+        int orderId;
         try {
-            int orderId = Integer.parseInt(orderIdField.getText().trim());
-            String newStatus = orderStatusTextField.getText().trim();
-            if (newStatus.isEmpty() || (!newStatus.equalsIgnoreCase("Pending") && !newStatus.equalsIgnoreCase("Completed") && !newStatus.equalsIgnoreCase("Cancelled"))) {
-                setStatus("Invalid status. Use 'Pending', 'Completed', or 'Cancelled'.", true, orderStatusLabel);
-                return;
-            }
-            if (dbManager.updateOrderStatus(orderId, newStatus)) {
+            orderId = Integer.parseInt(orderIdField.getText().trim());
+        } catch (NumberFormatException e) {
+            setStatus("Error: Invalid Order ID.", true, orderStatusLabel);
+            return;
+        }
+        String newStatus = orderStatusTextField.getText().trim();
+        if (newStatus.isEmpty() || (!newStatus.equalsIgnoreCase("Pending") && !newStatus.equalsIgnoreCase("Completed") && !newStatus.equalsIgnoreCase("Cancelled"))) {
+            setStatus("Invalid status. Use 'Pending', 'Completed', or 'Cancelled'.", true, orderStatusLabel);
+            return;
+        }
+        writeAsync("orderWrite", () -> dbManager.updateOrderStatus(orderId, newStatus), updated -> {
+            if (updated) {
                 setStatus("Order " + orderId + " status updated!", false, orderStatusLabel);
-                refreshOrderTable();
+                refreshChangedOrders();
+                refreshReports(); // a cancellation changes the sales summaries
                 orderIdField.setText(""); orderStatusTextField.setText("");
             } else {
                 setStatus("Failed to update status for Order " + orderId, true, orderStatusLabel);
             }
-        } catch (NumberFormatException e) {
-            setStatus("Error: Invalid Order ID.", true, orderStatusLabel);
-        } catch (SQLException ex) {
-            handleDatabaseError("Error updating order status: ", ex, orderStatusLabel);
+        }, "Error updating order status: ", orderStatusLabel);
+    }
+
+    /**
+     * Loads the Reports tab for the selected period. Both queries read only the summary tables, so they cost
+     * one row per day (or per product and day) in the period however many orders were placed.
+     */
+    private void refreshReports() {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(REPORT_RANGE_DAYS[reportRangeBox.getSelectedIndex()] - 1);
+        setStatus("Loading reports...", false, reportStatusLabel);
+        loadAsync("reportDailySales", () -> dbManager.getDailySales(from, to), days -> {
+            dailySalesTableModel.setRows(days);
+            int orders = 0;
+            int items = 0;
+            BigDecimal revenue = BigDecimal.ZERO;
+            for (DailySales day : days) {
+                orders += day.getOrderCount();
+                items += day.getItemsSold();
+                revenue = revenue.add(day.getRevenue());
+            }
+            reportTotalsLabel.setText("Total: " + orders + " orders, " + items + " items, $" + revenue);
+            setStatus("Sales from " + from + " to " + to + " loaded.", false, reportStatusLabel);
+        }, "Error loading daily sales: ", reportStatusLabel);
+        loadAsync("reportTopProducts", () -> dbManager.getTopProducts(from, to, REPORT_TOP_PRODUCTS),
+                topProductsTableModel::setRows, "Error loading top products: ", reportStatusLabel);
+    }
+
+    /**
+     * Recomputes the summary tables from the whole order history, then reloads the reports.
+     */
+    private void rebuildSalesSummaries() {
+        int choice = JOptionPane.showConfirmDialog(this,
+                "Recompute the sales summaries from every order? This reads the whole order history.",
+                "Rebuild Summaries", JOptionPane.YES_NO_OPTION);
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
+        }
+        setStatus("Rebuilding sales summaries...", false, reportStatusLabel);
+        writeAsync("reportRebuild", dbManager::rebuildSalesSummaries, days -> {
+            setStatus("Sales summaries rebuilt (" + days + " days with sales).", false, reportStatusLabel);
+            refreshReports();
+        }, "Error rebuilding sales summaries: ", reportStatusLabel);
+    }
+
+    /**
+     * Regenerates the bill of every order into one ZIP chosen by the admin, in the background.
+     */
+    private void exportAllBills(JButton exportButton) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("bills_" + new java.text.SimpleDateFormat("yyyyMMdd").format(new java.util.Date()) + ".zip"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        Path zipFile = chooser.getSelectedFile().toPath();
+        int workers = Runtime.getRuntime().availableProcessors();
+        BulkBillExporter exporter = new BulkBillExporter(dbManager, workers, workers * 4);
+        exportButton.setEnabled(false);
+        setStatus("Exporting bills to " + zipFile + "...", false, orderStatusLabel);
+
+        new SwingWorker<BulkBillExporter.ExportSummary, String>() {
+            @Override
+            protected BulkBillExporter.ExportSummary doInBackground() throws Exception {
+                return exporter.exportToZip(zipFile, (written, perSecond) ->
+                        publish(String.format("Exporting bills... %d written (%.1f bills/second)", written, perSecond)));
+            }
+            @Override
+            protected void process(List<String> chunks) {
+                setStatus(chunks.get(chunks.size() - 1), false, orderStatusLabel);
+            }
+            @Override
+            protected void done() {
+                exportButton.setEnabled(true);
+                try {
+                    BulkBillExporter.ExportSummary summary = get();
+                    setStatus("Bill export finished: " + summary, summary.getBillsFailed() > 0, orderStatusLabel);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof SQLException) {
+                        handleDatabaseError("Error exporting bills: ", (SQLException) cause, orderStatusLabel);
+                    } else {
+                        cause.printStackTrace();
+                        setStatus("Bill export failed: " + cause.getMessage(), true, orderStatusLabel);
+                    }
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Bulk-imports products from a CSV file chosen by the admin, in the background, then shows the rejected rows.
+     */
+    private void importProducts(JMenuItem importItem) {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path csvFile = chooser.getSelectedFile().toPath();
+        int workers = Runtime.getRuntime().availableProcessors();
+        ProductImporter importer = new ProductImporter(dbManager, workers, PRODUCT_IMPORT_CHUNK_SIZE, workers * 2);
+        importItem.setEnabled(false);
+        setStatus("Importing products from " + csvFile + "...", false, productStatusLabel);
+
+        new SwingWorker<ProductImporter.ImportSummary, String>() {
+            @Override
+            protected ProductImporter.ImportSummary doInBackground() throws Exception {
+                return importer.importCsv(csvFile, (read, imported, failed) ->
+                        publish(String.format("Importing products... %d rows read, %d imported, %d rejected", read, imported, failed)));
+            }
+            @Override
+            protected void process(List<String> chunks) {
+                setStatus(chunks.get(chunks.size() - 1), false, productStatusLabel);
+            }
+            @Override
+            protected void done() {
+                importItem.setEnabled(true);
+                refreshProductTable();
+                shopHasMorePages = true; // new ids sort last, so the shop picks them up on its next page load
+                try {
+                    ProductImporter.ImportSummary summary = get();
+                    setStatus("Import finished: " + summary, summary.getRowsFailed() > 0, productStatusLabel);
+                    if (summary.getRowsFailed() > 0) {
+                        StringBuilder report = new StringBuilder();
+                        for (ProductImporter.RowError error : summary.getErrors()) {
+                            report.append(error).append('\n');
+                        }
+                        if (summary.getErrors().size() < summary.getRowsFailed()) {
+                            report.append("... and ").append(summary.getRowsFailed() - summary.getErrors().size()).append(" more.\n");
+                        }
+                        JTextArea reportArea = new JTextArea(report.toString(), 15, 60);
+                        reportArea.setEditable(false);
+                        JOptionPane.showMessageDialog(StoreManagementApp.this, new JScrollPane(reportArea),
+                                summary.getRowsFailed() + " rows were not imported", JOptionPane.WARNING_MESSAGE);
+                    }
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof SQLException) {
+                        handleDatabaseError("Error importing products: ", (SQLException) cause, productStatusLabel);
+                    } else {
+                        cause.printStackTrace();
+                        setStatus("Product import failed: " + cause.getMessage(), true, productStatusLabel);
+                    }
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Streams every order line, or every product, into a file chosen by the admin, in the background.
+     * Progress goes to the order or product tab's status bar.
+     */
+    private void exportData(boolean orders, DataExporter.Format format, boolean gzip) {
+        String what = orders ? "orders" : "products";
+        JLabel statusLabel = orders ? orderStatusLabel : productStatusLabel;
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File(what + "_" + new java.text.SimpleDateFormat("yyyyMMdd").format(new java.util.Date())
+                + "." + format.getExtension() + (gzip ? ".gz" : "")));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        DataExporter exporter = new DataExporter(dbManager);
+        setStatus("Exporting " + what + " to " + file + "...", false, statusLabel);
+
+        new SwingWorker<DataExporter.ExportSummary, String>() {
+            @Override
+            protected DataExporter.ExportSummary doInBackground() throws Exception {
+                DataExporter.ProgressListener listener = (rows, perSecond) ->
+                        publish(String.format("Exporting %s... %d rows written (%.0f rows/second)", what, rows, perSecond));
+                return orders ? exporter.exportOrders(file, format, gzip, listener)
+                        : exporter.exportProducts(file, format, gzip, listener);
+            }
+            @Override
+            protected void process(List<String> chunks) {
+                setStatus(chunks.get(chunks.size() - 1), false, statusLabel);
+            }
+            @Override
+            protected void done() {
+                try {
+                    setStatus("Export of " + what + " finished: " + get() + ", saved at " + file, false, statusLabel);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof SQLException) {
+                        handleDatabaseError("Error exporting " + what + ": ", (SQLException) cause, statusLabel);
+                    } else {
+                        cause.printStackTrace();
+                        setStatus("Export of " + what + " failed: " + cause.getMessage(), true, statusLabel);
+                    }
+                }
+            }
+        }.execute();
     }
 
     private void showCustomerRegistrationDialog() {
@@ -946,27 +1474,38 @@ public class StoreManagementApp extends JFrame {
 
     private void registerNewCustomer() {
         if (!validateRegistrationFields()) return;
-        try {
-            String name = regNameField.getText().trim();
-            String email = regEmailField.getText().trim();
-            String phone = regPhoneField.getText().trim();
-            String address = regAddressArea.getText().trim();
-            String username = regUsernameField.getText().trim();
-            String password = new String(regPasswordField.getPassword());
-
-            Customer newCustomer = new Customer(0, name, email, phone, address);
-            int customerId = dbManager.insertCustomer(newCustomer);
-            if (customerId != -1) {
-                CustomerAccount newAccount = new CustomerAccount(customerId, username, password);
-                if (dbManager.registerCustomerAccount(newAccount) != -1) {
-                    JOptionPane.showMessageDialog(registrationDialog, "Registration successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    registrationDialog.dispose();
-                    customerLoginUsernameField.setText(username);
-                    customerLoginPasswordField.setText(password);
-                    attemptCustomerLogin();
-                } else { setStatus("Failed to create account. Username might be taken.", true, regStatusLabel); }
-            } else { setStatus("Failed to create profile. Email might be in use.", true, regStatusLabel); }
-        } catch (SQLException ex) { handleDatabaseError("Registration Error: ", ex, regStatusLabel); }
+        String name = regNameField.getText().trim();
+        String email = regEmailField.getText().trim();
+        String phone = regPhoneField.getText().trim();
+        String address = regAddressArea.getText().trim();
+        String username = regUsernameField.getText().trim();
+        String password = new String(regPasswordField.getPassword());
+
+        setStatus("Registering...", false, regStatusLabel);
+        // Returns the reason registration failed, or null on success
+        writeAsync("registration", () -> {
+            if (dbManager.usernameExists(username)) {
+                return "Username already exists. Please choose another.";
+            }
+            int customerId = dbManager.insertCustomer(new Customer(0, name, email, phone, address));
+            if (customerId == -1) {
+                return "Failed to create profile. Email might be in use.";
+            }
+            if (dbManager.registerCustomerAccount(new CustomerAccount(customerId, username, password)) == -1) {
+                return "Failed to create account. Username might be taken.";
+            }
+            return null;
+        }, failure -> {
+            if (failure != null) {
+                setStatus(failure, true, regStatusLabel);
+                return;
+            }
+            JOptionPane.showMessageDialog(registrationDialog, "Registration successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            registrationDialog.dispose();
+            customerLoginUsernameField.setText(username);
+            customerLoginPasswordField.setText(password);
+            attemptCustomerLogin();
+        }, "Registration Error: ", regStatusLabel);
     }
 
     private boolean validateRegistrationFields() {
@@ -992,16 +1531,7 @@ public class StoreManagementApp extends JFrame {
             setStatus("Invalid phone format. Use only digits and an optional leading '+'.", true, regStatusLabel);
             return false;
         }
-        try {
-            if (dbManager.usernameExists(username)) {
-                setStatus("Username already exists. Please choose another.", true, regStatusLabel);
-                return false;
-            }
-        } catch (SQLException e) {
-            handleDatabaseError("Error checking username: ", e, regStatusLabel);
-            return false;
-        }
-        return true;
+        return true; // the username is checked against the database when registering
     }
 
     private void checkoutCart() {
@@ -1026,21 +1556,27 @@ public class StoreManagementApp extends JFrame {
         }
 
         String paymentMethod = paymentOptions[choice];
-        try {
-            int orderId = dbManager.createOrder(customerForBill.getCustomerId(), currentCart.getItems(), currentCart.getTotal(), paymentMethod);
-            if(orderId != -1) {
-                Order newOrder = dbManager.getOrderById(orderId);
-                String pdfPath = PdfGenerator.generateBill(newOrder, customerForBill);
-                JOptionPane.showMessageDialog(this, "Checkout complete! Bill saved at: " + pdfPath, "Success", JOptionPane.INFORMATION_MESSAGE);
-                currentCart.clear();
-                displayProductsInShop();
-                refreshOrderTable();
+        Map<Integer, Integer> items = new HashMap<>(currentCart.getItems());
+        Map<Integer, Integer> reservations = new HashMap<>(currentCart.getReservations());
+        BigDecimal total = currentCart.getTotal();
+        setStatus("Placing your order...", false, shopStatusLabel);
+        writeAsync("checkout", () -> {
+            int orderId = dbManager.createOrder(customerForBill.getCustomerId(), items, total, paymentMethod, reservations);
+            return orderId == -1 ? null : dbManager.getOrderById(orderId);
+        }, newOrder -> {
+            if (newOrder != null) {
+                billService.submit(newOrder, customerForBill);
+                JOptionPane.showMessageDialog(this, "Checkout complete! Order ID: " + newOrder.getOrderId() + ".\nYour bill is being generated in the background.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                // Only what was ordered leaves the cart; anything added while the order was being placed stays
+                for (int productId : items.keySet()) {
+                    currentCart.removeItem(productId);
+                }
+                refreshShopProducts(items.keySet());
+                refreshChangedOrders();
             } else {
                 setStatus("Failed to create order.", true, shopStatusLabel);
             }
-        } catch (SQLException ex) {
-            handleDatabaseError("Checkout error:", ex, shopStatusLabel);
-        }
+        }, "Checkout error:", shopStatusLabel);
     }
 
     private void showCartDialog() {
@@ -1090,8 +1626,9 @@ public class StoreManagementApp extends JFrame {
                 public void mouseClicked(MouseEvent e) {
                     int row = cartTable.getSelectedRow();
                     if (row != -1) {
-                        cartItemIdField.setText(cartTable.getValueAt(row, 0).toString());
-                        cartItemQuantityField.setText(cartTable.getValueAt(row, 3).toString());
+                        Product p = cartTableModel.getRow(cartTable.convertRowIndexToModel(row));
+                        cartItemIdField.setText(String.valueOf(p.getProductId()));
+                        cartItemQuantityField.setText(String.valueOf(cartQuantity(p)));
                     }
                 }
             });
@@ -1105,31 +1642,34 @@ public class StoreManagementApp extends JFrame {
             JOptionPane.showMessageDialog(cartDialog, "Please select an item and enter a quantity.", "Input Error", JOptionPane.WARNING_MESSAGE);
             return;
         }
+        int productId, newQuantity;
         try {
-            int productId = Integer.parseInt(cartItemIdField.getText());
-            int newQuantity = Integer.parseInt(cartItemQuantityField.getText());
-
-            if (newQuantity < 0) {
-                JOptionPane.showMessageDialog(cartDialog, "Quantity cannot be negative.", "Input Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            Product p = dbManager.getProductById(productId);
-            if (newQuantity > p.getStockQuantity()) {
-                JOptionPane.showMessageDialog(cartDialog, "Not enough stock. Available: " + p.getStockQuantity(), "Stock Error", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-
-            if (newQuantity == 0) {
-                currentCart.removeItem(productId);
-            } else {
-                currentCart.setItemQuantity(productId, newQuantity);
-            }
-            refreshCartTable();
+            productId = Integer.parseInt(cartItemIdField.getText());
+            newQuantity = Integer.parseInt(cartItemQuantityField.getText());
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(cartDialog, "Invalid quantity.", "Error", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException ex) {
-            handleDatabaseError("Error checking stock:", ex, shopStatusLabel);
+            return;
+        }
+        if (newQuantity < 0) {
+            JOptionPane.showMessageDialog(cartDialog, "Quantity cannot be negative.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (newQuantity == 0) {
+            releaseCartReservation(productId);
+            currentCart.removeItem(productId);
+            refreshCartTable();
+            return;
         }
+        Integer previousReservation = currentCart.getReservationId(productId);
+        writeAsync("cartReservation:" + productId, () -> dbManager.reserveStock(previousReservation, productId, newQuantity), reservationId -> {
+            if (reservationId == -1) {
+                JOptionPane.showMessageDialog(cartDialog, "Not enough stock available for that quantity.", "Stock Error", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            currentCart.setItemQuantity(productId, newQuantity);
+            currentCart.setReservationId(productId, reservationId);
+            refreshCartTable();
+        }, "Error checking stock:", shopStatusLabel);
     }
 
     private void removeCartItem() {
@@ -1138,129 +1678,199 @@ public class StoreManagementApp extends JFrame {
             return;
         }
         int productId = Integer.parseInt(cartItemIdField.getText());
+        releaseCartReservation(productId);
         currentCart.removeItem(productId);
         refreshCartTable();
     }
 
+    private int cartQuantity(Product p) {
+        return currentCart.getItems().getOrDefault(p.getProductId(), 0);
+    }
+
     private void refreshCartTable() {
-        cartTableModel.setRowCount(0);
-        for (Map.Entry<Integer, Integer> entry : currentCart.getItems().entrySet()) {
-            Product p = currentCart.getProductDetails(entry.getKey());
+        List<Product> cartProducts = new ArrayList<>();
+        for (int productId : currentCart.getItems().keySet()) {
+            Product p = currentCart.getProductDetails(productId);
             if (p != null) {
-                BigDecimal subtotal = p.getPrice().multiply(new BigDecimal(entry.getValue()));
-                cartTableModel.addRow(new Object[]{p.getProductId(), p.getName(), p.getPrice(), entry.getValue(), subtotal.setScale(2, BigDecimal.ROUND_HALF_UP)});
+                cartProducts.add(p);
             }
         }
+        cartTableModel.setRows(cartProducts);
         cartTotalLabel.setText("Total: $" + currentCart.getTotal().setScale(2, BigDecimal.ROUND_HALF_UP));
         cartItemIdField.setText("");
         cartItemQuantityField.setText("");
     }
 
+    /**
+     * Resets the shop grid and loads the first catalog page. Further pages are loaded on demand
+     * by the scroll listener, so only what the customer scrolls to is fetched and rendered.
+     */
     private void displayProductsInShop() {
-        productDisplayPanel.removeAll();
-        GridBagConstraints gbc = new GridBagConstraints();
-        gbc.insets = new Insets(10, 10, 10, 10);
-        gbc.fill = GridBagConstraints.NONE;
-        gbc.anchor = GridBagConstraints.NORTHWEST;
+        if (productGridTable.isEditing()) {
+            productGridTable.getCellEditor().cancelCellEditing();
+        }
+        dataAccess.cancel(SHOP_PAGE_TASK); // a page still loading belongs to the old listing
+        shopHasMorePages = false; // keep the scroll reset below from triggering a load of its own
+        productGridModel.clear();
+        productScrollPane.getVerticalScrollBar().setValue(0);
+        shopHasMorePages = true;
+        loadNextShopPage();
+    }
 
-        try {
-            List<Product> products = dbManager.getAllProducts();
-            int column = 0;
-            int row = 0;
-            int maxColumns = 3;
-
-            for (Product product : products) {
-                JPanel card = new JPanel(new BorderLayout(5, 5));
-                // CHANGE: Adjusted card size as requested
-                card.setPreferredSize(new Dimension(400, 325));
-                card.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY, 1));
-
-                JLabel imageLabel = new JLabel();
-                imageLabel.setPreferredSize(new Dimension(250, 200));
-                imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
-                if (product.getImageUrl() != null && !product.getImageUrl().isEmpty()) {
-                    new SwingWorker<ImageIcon, Void>() {
-                        @Override
-                        protected ImageIcon doInBackground() {
-                            try {
-                                URL url = new URL(product.getImageUrl());
-                                BufferedImage img = ImageIO.read(url);
-                                if (img != null) {
-                                    return new ImageIcon(img.getScaledInstance(180, 180, Image.SCALE_SMOOTH));
-                                }
-                            } catch (Exception ex) {
-                                System.err.println("Failed to load image: " + product.getImageUrl());
-                            }
-                            return null;
-                        }
-                        @Override
-                        protected void done() {
-                            try {
-                                ImageIcon icon = get();
-                                if (icon != null) {
-                                    imageLabel.setIcon(icon);
-                                } else {
-                                    imageLabel.setText("No Image");
-                                }
-                            } catch (Exception ex) {
-                                imageLabel.setText("Image Error");
-                            }
-                        }
-                    }.execute();
+    private void loadNextShopPage() {
+        if (!shopHasMorePages || dataAccess.isLoading(SHOP_PAGE_TASK)) {
+            return; // scroll events keep coming while a page is loading; one request per page is enough
+        }
+        int afterProductId = productGridModel.getLastProductId();
+        String search = shopSearchField.getText();
+        loadAsync(SHOP_PAGE_TASK, () -> dbManager.getProductsPage(afterProductId, SHOP_PAGE_SIZE, search), products -> {
+            shopHasMorePages = products.size() == SHOP_PAGE_SIZE;
+            productGridModel.appendProducts(products);
+
+            // A short first page may not fill the viewport, in which case no scroll event will ever ask for more.
+            SwingUtilities.invokeLater(() -> {
+                if (shopHasMorePages && productGridTable.getPreferredSize().height <= productScrollPane.getViewport().getHeight()) {
+                    loadNextShopPage();
+                }
+            });
+        }, ex -> {
+            shopHasMorePages = false;
+            handleDatabaseError("Error loading products:", ex, shopStatusLabel);
+        });
+    }
+
+    /**
+     * Re-reads the given products and patches their cards in place, e.g. after a checkout changed their stock.
+     */
+    private void refreshShopProducts(Iterable<Integer> productIds) {
+        List<Integer> shown = new ArrayList<>();
+        for (int productId : productIds) {
+            if (productGridModel.getProduct(productId) != null) {
+                shown.add(productId);
+            }
+        }
+        if (shown.isEmpty()) {
+            return;
+        }
+        // Product ID -> current row, or null if the product has been deleted
+        loadAsync(null, () -> {
+            Map<Integer, Product> fresh = new HashMap<>();
+            for (int productId : shown) {
+                fresh.put(productId, dbManager.getProductById(productId));
+            }
+            return fresh;
+        }, fresh -> {
+            for (Map.Entry<Integer, Product> entry : fresh.entrySet()) {
+                if (entry.getValue() != null) {
+                    productGridModel.updateProduct(entry.getValue());
                 } else {
-                    imageLabel.setText("No Image Available");
+                    productGridModel.removeProduct(entry.getKey());
                 }
-                card.add(imageLabel, BorderLayout.NORTH);
-
-                // FIX: Using BoxLayout for reliable vertical stacking of product info
-                JPanel infoPanel = new JPanel();
-                infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
-                infoPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-
-                JLabel nameLabel = new JLabel("<html><b>" + product.getName() + "</b></html>");
-                JLabel priceLabel = new JLabel("Price: $" + product.getPrice());
-                JLabel stockLabel = new JLabel("Stock: " + product.getStockQuantity());
-                if(product.getStockQuantity() == 0) stockLabel.setForeground(Color.RED);
-
-                infoPanel.add(nameLabel);
-                infoPanel.add(priceLabel);
-                infoPanel.add(stockLabel);
-                card.add(infoPanel, BorderLayout.CENTER);
-
-                JPanel cartActionsPanel = new JPanel();
-                JTextField quantityField = new JTextField("1", 3);
-                JButton addToCartButton = new JButton("Add to Cart");
-                styleGenericButton(addToCartButton, new Color(52, 152, 219), new Color(41, 128, 185));
-                if(product.getStockQuantity() == 0) addToCartButton.setEnabled(false);
-                addToCartButton.addActionListener(e -> {
-                    try {
-                        int quantity = Integer.parseInt(quantityField.getText());
-                        if(quantity > 0 && quantity <= product.getStockQuantity()) {
-                            currentCart.addItem(product, quantity);
-                            setStatus(quantity + "x " + product.getName() + " added to cart.", false, shopStatusLabel);
-                        } else {
-                            setStatus("Invalid quantity or not enough stock.", true, shopStatusLabel);
-                        }
-                    } catch (NumberFormatException ex) {
-                        setStatus("Please enter a valid number.", true, shopStatusLabel);
-                    }
-                });
-                cartActionsPanel.add(new JLabel("Qty:"));
-                cartActionsPanel.add(quantityField);
-                cartActionsPanel.add(addToCartButton);
-                card.add(cartActionsPanel, BorderLayout.SOUTH);
+            }
+        }, "Error refreshing products:", shopStatusLabel);
+    }
 
-                gbc.gridx = column; gbc.gridy = row;
-                productDisplayPanel.add(card, gbc);
+    /**
+     * Applies a product's new stock, from this till or another, to what the shop shows: its card (and the live
+     * card if the user is on it) and the cart. A deleted product leaves the grid and the cart.
+     */
+    private void applyStockChange(StockChange change) {
+        int productId = change.getProductId();
+        Product inCart = currentCart.getProductDetails(productId);
+        if (change.isProductDeleted()) {
+            productGridModel.removeProduct(productId);
+            if (inCart != null) {
+                currentCart.removeItem(productId); // its reservation went with the product
+                setStatus(inCart.getName() + " is no longer sold and was removed from your cart.", true, shopStatusLabel);
+            }
+            return;
+        }
+        int stock = change.getStockQuantity();
+        Product shown = productGridModel.getProduct(productId);
+        if (shown != null && shown.getStockQuantity() != stock) {
+            Product updated = withStock(shown, stock);
+            productGridModel.updateProduct(updated);
+            if (productCardEditor != null) {
+                productCardEditor.refresh(updated);
+            }
+        }
+        if (inCart != null) {
+            currentCart.updateProductDetails(withStock(inCart, stock));
+            int inCartQuantity = currentCart.getItems().get(productId);
+            if (stock < inCartQuantity) {
+                setStatus("Only " + stock + " of " + inCart.getName() + " left; your cart holds " + inCartQuantity + ".", true, shopStatusLabel);
+            }
+        }
+    }
+
+    // Products may be shared with the product cache, so a change gets a copy rather than a setter call
+    private static Product withStock(Product product, int stock) {
+        return new Product(product.getProductId(), product.getName(), product.getDescription(), product.getPrice(),
+                stock, product.getImageUrl());
+    }
 
-                column++;
-                if (column >= maxColumns) { column = 0; row++; }
+    /**
+     * Fills a shop card for a product. Used by both the grid renderer and the live editor card.
+     */
+    private void bindProductCard(ProductCard card, Product product) {
+        String imageUrl = product.getImageUrl();
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            card.bind(product, null, "No Image Available");
+        } else {
+            ImageIcon icon = imageCache.getIfCached(imageUrl, SHOP_IMAGE_SIZE, SHOP_IMAGE_SIZE);
+            if (icon != null) {
+                card.bind(product, icon, null);
+            } else if (imageCache.isKnownMissing(imageUrl, SHOP_IMAGE_SIZE, SHOP_IMAGE_SIZE)) {
+                card.bind(product, null, "No Image");
+            } else {
+                if (!imageCache.isLoading(imageUrl, SHOP_IMAGE_SIZE, SHOP_IMAGE_SIZE)) {
+                    imageCache.load(imageUrl, SHOP_IMAGE_SIZE, SHOP_IMAGE_SIZE)
+                            .thenRun(() -> SwingUtilities.invokeLater(productGridTable::repaint));
+                }
+                card.bind(product, null, "Loading...");
+            }
+        }
+    }
+
+    /**
+     * Reserves the stock before the item goes into the cart, so what is in the cart is still there at checkout.
+     * One reservation per product covers its whole cart quantity and replaces the previous one.
+     */
+    private void addToCart(Product product, String quantityText) {
+        int quantity;
+        try {
+            quantity = Integer.parseInt(quantityText.trim());
+        } catch (NumberFormatException ex) {
+            setStatus("Please enter a valid number.", true, shopStatusLabel);
+            return;
+        }
+        if (quantity <= 0 || quantity > product.getStockQuantity()) {
+            setStatus("Invalid quantity or not enough stock.", true, shopStatusLabel);
+            return;
+        }
+        int productId = product.getProductId();
+        Integer previousReservation = currentCart.getReservationId(productId);
+        int cartQuantity = currentCart.getItems().getOrDefault(productId, 0) + quantity;
+        writeAsync("cartReservation:" + productId, () -> dbManager.reserveStock(previousReservation, productId, cartQuantity), reservationId -> {
+            if (reservationId == -1) {
+                setStatus("Not enough stock available for " + product.getName() + ".", true, shopStatusLabel);
+                return;
             }
-        } catch (SQLException e) {
-            handleDatabaseError("Error loading products:", e, shopStatusLabel);
+            currentCart.addItem(product, quantity);
+            currentCart.setReservationId(productId, reservationId);
+            setStatus(quantity + "x " + product.getName() + " added to cart.", false, shopStatusLabel);
+        }, "Error reserving stock: ", shopStatusLabel);
+    }
+
+    /**
+     * Gives the stock held for a cart item back in the background; left alone, the reservation would expire anyway.
+     */
+    private void releaseCartReservation(int productId) {
+        Integer reservationId = currentCart.getReservationId(productId);
+        if (reservationId != null) {
+            dataAccess.update(null, () -> dbManager.releaseReservation(reservationId), released -> { },
+                    e -> System.err.println("StoreManagementApp: Could not release stock reservation " + reservationId + ": " + e.getMessage()));
         }
-        productDisplayPanel.revalidate();
-        productDisplayPanel.repaint();
     }
 
     private void showMyOrdersDialog() {
@@ -1269,47 +1879,29 @@ public class StoreManagementApp extends JFrame {
             return;
         }
 
-        myOrdersTableModel.setRowCount(0);
-        myOrderItemsTableModel.setRowCount(0);
-
-        try {
-            List<Order> customerOrders = dbManager.getOrdersByCustomerId(loggedInCustomerProfile.getCustomerId());
-            if (customerOrders.isEmpty()) {
-                myOrdersTableModel.addRow(new Object[]{"No orders found.", "", "", "", ""});
-            } else {
-                for (Order order : customerOrders) {
-                    myOrdersTableModel.addRow(new Object[]{
-                            order.getOrderId(),
-                            order.getOrderDate(),
-                            order.getTotalAmount(),
-                            order.getStatus(),
-                            order.getPaymentMethod()
-                    });
-                }
-            }
-        } catch (SQLException ex) {
-            handleDatabaseError("Error fetching your orders: ", ex, new JLabel());
+        if (myOrdersDialog == null) {
+            initMyOrdersDialog();
         }
+        myOrdersTableModel.clear();
+        myOrderItemsTableModel.clear();
+        myOrdersDialog.setTitle("My Order History - Loading...");
 
-        myOrdersDialog.setVisible(true);
+        int customerId = loggedInCustomerProfile.getCustomerId();
+        loadAsync("myOrders", () -> dbManager.getOrdersByCustomerId(customerId), customerOrders -> {
+            myOrdersTableModel.setRows(customerOrders);
+            myOrdersDialog.setTitle(customerOrders.isEmpty() ? "My Order History - No orders found." : "My Order History");
+        }, "Error fetching your orders: ", new JLabel());
+
+        myOrdersDialog.setVisible(true); // modal; the orders fill in when the load completes
     }
 
     private void displayMyOrderItems(int orderId) {
-        myOrderItemsTableModel.setRowCount(0);
-        try {
-            Order selectedOrder = dbManager.getOrderById(orderId);
+        myOrderItemsTableModel.clear();
+        loadAsync("myOrderItems", () -> dbManager.getOrderById(orderId), selectedOrder -> {
             if (selectedOrder != null) {
-                for (OrderItem item : selectedOrder.getOrderItems()) {
-                    myOrderItemsTableModel.addRow(new Object[]{
-                            item.getProductName(),
-                            item.getQuantity(),
-                            item.getPriceAtPurchase()
-                    });
-                }
+                myOrderItemsTableModel.setRows(selectedOrder.getOrderItems());
             }
-        } catch (SQLException ex) {
-            handleDatabaseError("Error fetching details for order " + orderId, ex, new JLabel());
-        }
+        }, "Error fetching details for order " + orderId, new JLabel());
     }
 
     private void showWelcomePanel() {
@@ -1324,11 +1916,13 @@ public class StoreManagementApp extends JFrame {
     private void showCustomerLoginPanel() { cardLayout.show(mainPanel, "CustomerLogin"); }
 
     private void showAdminDashboardPanel() {
+        ensureAdminDashboardPanel();
         cardLayout.show(mainPanel, "AdminDashboard");
         refreshAdminTables();
     }
 
     private void showShopPanel() {
+        ensureShopPanel();
         cardLayout.show(mainPanel, "Shop");
         displayProductsInShop();
         if (loggedInCustomerProfile != null) {
@@ -1349,6 +1943,9 @@ public class StoreManagementApp extends JFrame {
     private void clearUserSession() {
         loggedInCustomerAccount = null;
         loggedInCustomerProfile = null;
+        for (int productId : currentCart.getReservations().keySet()) {
+            releaseCartReservation(productId);
+        }
         currentCart.clear();
         clearLoginFields();
     }
@@ -1364,6 +1961,69 @@ public class StoreManagementApp extends JFrame {
         refreshProductTable();
         refreshCustomerTable();
         refreshOrderTable();
+        refreshReports();
+    }
+
+    /**
+     * Stops background services. Queued bills and running database calls get a few seconds to finish before the application exits.
+     */
+    public void shutdown() {
+        stockChangePoller.stop();
+        billService.shutdown(10_000);
+        dataAccess.shutdown(5_000);
+    }
+
+    /**
+     * Reports bill rendering progress in the shop status bar. BillService calls this from its worker threads.
+     */
+    private class BillProgressReporter implements BillService.BillListener {
+        @Override
+        public void billQueued(int orderId) {
+            SwingUtilities.invokeLater(() -> setStatus("Bill for order " + orderId + " queued...", false, shopStatusLabel));
+        }
+
+        @Override
+        public void billStarted(int orderId) {
+            SwingUtilities.invokeLater(() -> setStatus("Generating bill for order " + orderId + "...", false, shopStatusLabel));
+        }
+
+        @Override
+        public void billCompleted(int orderId, Path billPath) {
+            SwingUtilities.invokeLater(() -> setStatus("Bill for order " + orderId + " saved at: " + billPath, false, shopStatusLabel));
+        }
+
+        @Override
+        public void billFailed(int orderId, Throwable error) {
+            System.err.println("Bill generation failed for order " + orderId + ": " + error.getMessage());
+            SwingUtilities.invokeLater(() -> {
+                setStatus("Could not generate the bill for order " + orderId + ". See console for details.", true, shopStatusLabel);
+                JOptionPane.showMessageDialog(StoreManagementApp.this,
+                        "The order was placed, but its bill could not be generated:\n" + error.getMessage(),
+                        "Bill Error", JOptionPane.ERROR_MESSAGE);
+            });
+        }
+    }
+
+    /**
+     * Runs a database read on the data-access executor and hands the result to {@code onSuccess} on the EDT.
+     * A newer load with the same key supersedes this one.
+     */
+    private <T> void loadAsync(String key, DataAccessExecutor.Query<T> query, Consumer<T> onSuccess, String errorContext, JLabel statusLabel) {
+        loadAsync(key, query, onSuccess, ex -> handleDatabaseError(errorContext, ex, statusLabel));
+    }
+
+    private <T> void loadAsync(String key, DataAccessExecutor.Query<T> query, Consumer<T> onSuccess, Consumer<SQLException> onError) {
+        dataAccess.load(key, query, onSuccess, onError);
+    }
+
+    /**
+     * Runs a database write on the data-access executor. Repeated clicks while the previous write
+     * with the same key is still running are ignored rather than applied twice.
+     */
+    private <T> void writeAsync(String key, DataAccessExecutor.Query<T> query, Consumer<T> onSuccess, String errorContext, JLabel statusLabel) {
+        if (dataAccess.update(key, query, onSuccess, ex -> handleDatabaseError(errorContext, ex, statusLabel)) == null) {
+            setStatus("Still working on the previous request, please wait...", true, statusLabel);
+        }
     }
 
     private void setStatus(String message, boolean isError, JLabel statusLabel) {